@@ -0,0 +1,74 @@
+package av.code.wicked.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import av.code.wicked.model.BatchHullService;
+import av.code.wicked.model.MonotoneChainKernel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Many small independent hulls: a single-threaded loop over one reused kernel against
+ * {@link BatchHullService}, which should scale with the number of cores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class BatchHullBenchmark {
+
+    @Param({"10000", "50000"})
+    public int setCount;
+
+    @Param({"16", "128", "1024"})
+    public int setSize;
+
+    @Param({"UNIFORM_DISK", "GAUSSIAN"})
+    public PointDistribution distribution;
+
+    private List<BatchHullService.PointSet> sets;
+    private final MonotoneChainKernel kernel = new MonotoneChainKernel();
+    private final BatchHullService service = new BatchHullService();
+    private int[] hull;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(PointDistribution.SEED);
+        sets = new ArrayList<>(setCount);
+        for (int i = 0; i < setCount; i++) {
+            double[] xs = new double[setSize];
+            double[] ys = new double[setSize];
+            distribution.fill(xs, ys, random);
+            sets.add(new BatchHullService.PointSet(xs, ys));
+        }
+        hull = new int[2 * setSize];
+    }
+
+    @Benchmark
+    public void loop(Blackhole blackhole) {
+        for (BatchHullService.PointSet set : sets) {
+            blackhole.consume(kernel.computeHull(set.xs(), set.ys(), hull));
+        }
+    }
+
+    @Benchmark
+    public void batch(Blackhole blackhole) {
+        service.computeAll(sets, blackhole::consume);
+    }
+}
@@ -0,0 +1,68 @@
+package av.code.wicked.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import av.code.wicked.view.CoordinateMapper;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.geometry.Point2D;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Per-point cost of the {@link CoordinateMapper} transforms the renderer applies on every redraw.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CoordinateMapperBenchmark {
+
+    private static final int POINTS = 10_000;
+
+    private final CoordinateMapper mapper = new CoordinateMapper();
+    private List<Point2D> points;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mapper.bindTo(new SimpleDoubleProperty(1280), new SimpleDoubleProperty(720));
+        points = PointDistribution.UNIFORM_SQUARE.points(POINTS);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POINTS)
+    public void toView(Blackhole blackhole) {
+        for (Point2D point : points) {
+            blackhole.consume(mapper.toView(point));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POINTS)
+    public void toModel(Blackhole blackhole) {
+        for (Point2D point : points) {
+            blackhole.consume(mapper.toModel(point));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POINTS)
+    public void toViewY(Blackhole blackhole) {
+        for (Point2D point : points) {
+            blackhole.consume(mapper.toViewY(point.getY()));
+        }
+    }
+}
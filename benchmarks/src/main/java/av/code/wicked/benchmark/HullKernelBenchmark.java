@@ -0,0 +1,67 @@
+package av.code.wicked.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import av.code.wicked.model.MonotoneChainKernel;
+import av.code.wicked.model.ParallelMonotoneChainHull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Hull-only throughput of the primitive kernel, with and without interior culling, and of the
+ * fork-join front end. Run with {@code -prof gc} to confirm the sequential paths stay allocation-free.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class HullKernelBenchmark {
+
+    @Param({"100", "10000", "1000000", "10000000"})
+    public int size;
+
+    @Param({"UNIFORM_SQUARE", "UNIFORM_DISK", "GAUSSIAN", "ON_CIRCLE"})
+    public PointDistribution distribution;
+
+    private double[] xs;
+    private double[] ys;
+    private int[] hull;
+    private final MonotoneChainKernel kernel = new MonotoneChainKernel();
+    private final MonotoneChainKernel cullingKernel = new MonotoneChainKernel(true);
+    private final ParallelMonotoneChainHull parallel = new ParallelMonotoneChainHull();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        double[][] coordinates = distribution.coordinates(size);
+        xs = coordinates[0];
+        ys = coordinates[1];
+        hull = new int[2 * size];
+    }
+
+    @Benchmark
+    public int kernel() {
+        return kernel.computeHull(xs, ys, hull);
+    }
+
+    @Benchmark
+    public int kernelWithCulling() {
+        return cullingKernel.computeHull(xs, ys, hull);
+    }
+
+    @Benchmark
+    public int parallel() {
+        return parallel.computeHull(xs, ys, hull);
+    }
+}
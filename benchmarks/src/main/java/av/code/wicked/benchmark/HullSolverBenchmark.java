@@ -0,0 +1,76 @@
+package av.code.wicked.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import av.code.wicked.model.AutoHullSolver;
+import av.code.wicked.model.ChanHull;
+import av.code.wicked.model.MonotoneChainHull;
+import av.code.wicked.model.QuickHull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Hull-only throughput of each solver engine. The distributions span tiny hulls (Gaussian), small
+ * ones (uniform square and disk) and hulls holding every point (on a circle), which is where the
+ * output-sensitive engines and the auto-selector should be compared.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class HullSolverBenchmark {
+
+    @Param({"10000", "1000000"})
+    public int size;
+
+    @Param({"UNIFORM_SQUARE", "UNIFORM_DISK", "GAUSSIAN", "ON_CIRCLE"})
+    public PointDistribution distribution;
+
+    private double[] xs;
+    private double[] ys;
+    private int[] hull;
+    private final MonotoneChainHull monotoneChain = new MonotoneChainHull();
+    private final QuickHull quickHull = new QuickHull();
+    private final ChanHull chan = new ChanHull();
+    private final AutoHullSolver auto = new AutoHullSolver();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        double[][] coordinates = distribution.coordinates(size);
+        xs = coordinates[0];
+        ys = coordinates[1];
+        hull = new int[2 * size];
+    }
+
+    @Benchmark
+    public int monotoneChain() {
+        return monotoneChain.computeHull(xs, ys, hull);
+    }
+
+    @Benchmark
+    public int quickHull() {
+        return quickHull.computeHull(xs, ys, hull);
+    }
+
+    @Benchmark
+    public int chan() {
+        return chan.computeHull(xs, ys, hull);
+    }
+
+    @Benchmark
+    public int auto() {
+        return auto.computeHull(xs, ys, hull);
+    }
+}
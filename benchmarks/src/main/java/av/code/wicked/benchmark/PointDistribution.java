@@ -0,0 +1,83 @@
+package av.code.wicked.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import javafx.geometry.Point2D;
+
+/**
+ * Seeded point clouds with very different hull sizes, so every benchmark sees the same input.
+ */
+public enum PointDistribution {
+
+    /** Uniform in a square: h grows like log n and most points are deep inside. */
+    UNIFORM_SQUARE {
+        @Override
+        void fill(double[] xs, double[] ys, Random random) {
+            for (int i = 0; i < xs.length; i++) {
+                xs[i] = random.nextDouble() * EXTENT;
+                ys[i] = random.nextDouble() * EXTENT;
+            }
+        }
+    },
+
+    /** Uniform in a disk: h grows like n^(1/3). */
+    UNIFORM_DISK {
+        @Override
+        void fill(double[] xs, double[] ys, Random random) {
+            double radius = EXTENT / 2;
+            for (int i = 0; i < xs.length; i++) {
+                double r = radius * Math.sqrt(random.nextDouble());
+                double angle = random.nextDouble() * 2 * Math.PI;
+                xs[i] = radius + r * Math.cos(angle);
+                ys[i] = radius + r * Math.sin(angle);
+            }
+        }
+    },
+
+    /** Gaussian blob: few extreme outliers define the hull. */
+    GAUSSIAN {
+        @Override
+        void fill(double[] xs, double[] ys, Random random) {
+            for (int i = 0; i < xs.length; i++) {
+                xs[i] = EXTENT / 2 + random.nextGaussian() * EXTENT / 8;
+                ys[i] = EXTENT / 2 + random.nextGaussian() * EXTENT / 8;
+            }
+        }
+    },
+
+    /** Points on a circle: worst case, every point is a hull vertex. */
+    ON_CIRCLE {
+        @Override
+        void fill(double[] xs, double[] ys, Random random) {
+            double radius = EXTENT / 2;
+            for (int i = 0; i < xs.length; i++) {
+                double angle = random.nextDouble() * 2 * Math.PI;
+                xs[i] = radius + radius * Math.cos(angle);
+                ys[i] = radius + radius * Math.sin(angle);
+            }
+        }
+    };
+
+    static final double EXTENT = 1000;
+    static final long SEED = 0x5EED_C0DEL;
+
+    abstract void fill(double[] xs, double[] ys, Random random);
+
+    double[][] coordinates(int count) {
+        double[] xs = new double[count];
+        double[] ys = new double[count];
+        fill(xs, ys, new Random(SEED));
+        return new double[][] {xs, ys};
+    }
+
+    List<Point2D> points(int count) {
+        double[][] coordinates = coordinates(count);
+        List<Point2D> points = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            points.add(new Point2D(coordinates[0][i], coordinates[1][i]));
+        }
+        return points;
+    }
+}
@@ -0,0 +1,53 @@
+package av.code.wicked.benchmark;
+
+import java.security.SecureRandom;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import av.code.wicked.util.RandomPointGenerator;
+import javafx.geometry.Point2D;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link RandomPointGenerator#generatePoints} with the UI's default {@link SecureRandom} source and
+ * with a seeded {@link Random}, to separate entropy cost from allocation cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RandomPointGeneratorBenchmark {
+
+    @Param({"100", "10000", "1000000"})
+    public int count;
+
+    @Param({"SECURE", "SEEDED"})
+    public String source;
+
+    private RandomPointGenerator generator;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = "SECURE".equals(source) ? new SecureRandom() : new Random(PointDistribution.SEED);
+        generator = new RandomPointGenerator(random);
+    }
+
+    @Benchmark
+    public List<Point2D> generatePoints() {
+        return generator.generatePoints(count, 1280, 720, 4);
+    }
+}
@@ -0,0 +1,58 @@
+package av.code.wicked.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import av.code.wicked.model.HullStep;
+import av.code.wicked.model.MonotoneChainHull;
+import javafx.geometry.Point2D;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of {@link MonotoneChainHull#compute(List)}, the step-log path behind Prepare Hull. With
+ * {@code -prof gc}, {@code gc.alloc.rate.norm} is the step-log construction footprint per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class StepLogBenchmark {
+
+    @Param({"100", "10000", "1000000", "10000000"})
+    public int size;
+
+    @Param({"UNIFORM_SQUARE", "UNIFORM_DISK", "GAUSSIAN", "ON_CIRCLE"})
+    public PointDistribution distribution;
+
+    private List<Point2D> points;
+    private final MonotoneChainHull solver = new MonotoneChainHull();
+    private final MonotoneChainHull cullingSolver = new MonotoneChainHull(true);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        points = distribution.points(size);
+    }
+
+    @Benchmark
+    public List<HullStep> compute() {
+        return solver.compute(points);
+    }
+
+    @Benchmark
+    public List<HullStep> computeWithCulling() {
+        return cullingSolver.compute(points);
+    }
+}
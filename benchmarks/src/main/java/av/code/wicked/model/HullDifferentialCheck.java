@@ -0,0 +1,209 @@
+package av.code.wicked.model;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import javafx.geometry.Point2D;
+
+/**
+ * Differential check of the structures behind live hull editing, run against plain reference
+ * implementations over random edit sequences. {@link DynamicConvexHull} is compared after every
+ * insert, delete and batch insert with a monotone-chain scan of the live points, on grids coarse
+ * enough to produce duplicates and collinear runs and on points rounded onto a circle, where every
+ * point is a hull vertex. {@link PersistentPointList} is compared with an {@link ArrayList} through
+ * every edit, including the package-private {@code subList} and {@code concat} the hull chains are
+ * cut and joined with, and every earlier version is checked to be left untouched.
+ * <p>
+ * It sits in the model package to reach those methods and shares the benchmark jar:
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar av.code.wicked.model.HullDifferentialCheck [seed]
+ * </pre>
+ * The exit status is non-zero if any comparison failed.
+ */
+public final class HullDifferentialCheck {
+
+    private static final Comparator<Point2D> LEXICOGRAPHIC =
+            Comparator.comparingDouble(Point2D::getX).thenComparingDouble(Point2D::getY);
+    private static final int[] GRIDS = {3, 5, 20, 1000, 1 << 30};
+    private static final int HULL_TRIALS = 60;
+    private static final int LIST_TRIALS = 200;
+    private static final int REPORTED_FAILURES = 5;
+
+    private final Random random;
+    private long checks;
+    private long failures;
+
+    private HullDifferentialCheck(long seed) {
+        this.random = new Random(seed);
+    }
+
+    public static void main(String[] args) {
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : 1;
+        HullDifferentialCheck check = new HullDifferentialCheck(seed);
+        for (int trial = 0; trial < HULL_TRIALS; trial++) {
+            check.dynamicHullTrial(GRIDS[trial % GRIDS.length], trial % 7 == 0);
+        }
+        for (int trial = 0; trial < LIST_TRIALS; trial++) {
+            check.persistentListTrial();
+        }
+        System.out.printf("seed %d: %d checks, %d failures%n", seed, check.checks, check.failures);
+        if (check.failures > 0) {
+            System.exit(1);
+        }
+    }
+
+    private void dynamicHullTrial(int grid, boolean onCircle) {
+        DynamicConvexHull hull = new DynamicConvexHull();
+        List<Point2D> live = new ArrayList<>();
+        int operations = 200 + random.nextInt(1200);
+        for (int op = 0; op < operations; op++) {
+            int kind = random.nextInt(10);
+            if (kind < 5 || live.isEmpty()) {
+                Point2D point = onCircle ? circlePoint() : gridPoint(grid);
+                live.add(point);
+                hull.add(point);
+            } else if (kind < 9) {
+                Point2D point = live.remove(random.nextInt(live.size()));
+                expect(hull.remove(point), "remove of a live point " + point + " reported absent");
+            } else if (random.nextInt(20) == 0) {
+                List<Point2D> batch = new ArrayList<>();
+                int count = random.nextInt(500);
+                for (int i = 0; i < count; i++) {
+                    batch.add(gridPoint(grid));
+                }
+                live.addAll(batch);
+                hull.addAll(batch);
+            }
+            List<Point2D> distinct = new ArrayList<>(distinct(live));
+            List<Point2D> expected = referenceHull(distinct);
+            expect(hull.hull().equals(expected),
+                    "grid " + grid + ", " + live.size() + " points: hull " + hull.hull() + ", expected " + expected);
+            expect(hull.size() == distinct.size(),
+                    "grid " + grid + ": size " + hull.size() + ", expected " + distinct.size());
+        }
+    }
+
+    private void persistentListTrial() {
+        List<PersistentPointList> versions = new ArrayList<>();
+        List<List<Point2D>> expected = new ArrayList<>();
+        PersistentPointList list = PersistentPointList.of(randomPoints(random.nextInt(50)));
+        List<Point2D> reference = list.toList();
+        int operations = 50 + random.nextInt(200);
+        for (int op = 0; op < operations; op++) {
+            versions.add(list);
+            expected.add(List.copyOf(reference));
+            int size = reference.size();
+            switch (random.nextInt(6)) {
+                case 0 -> {
+                    int index = random.nextInt(size + 1);
+                    Point2D point = gridPoint(1000);
+                    list = list.insert(index, point);
+                    reference.add(index, point);
+                }
+                case 1 -> {
+                    if (size > 0) {
+                        int index = random.nextInt(size);
+                        list = list.remove(index);
+                        reference.remove(index);
+                    }
+                }
+                case 2 -> {
+                    List<Point2D> points = randomPoints(random.nextInt(40));
+                    list = list.appendAll(points);
+                    reference.addAll(points);
+                }
+                case 3 -> {
+                    int from = random.nextInt(size + 1);
+                    int to = from + random.nextInt(size - from + 1);
+                    list = list.subList(from, to);
+                    reference = new ArrayList<>(reference.subList(from, to));
+                }
+                case 4 -> {
+                    // Join with a cut of an earlier version, as the hull joins two chains.
+                    int earlier = random.nextInt(versions.size());
+                    List<Point2D> other = expected.get(earlier);
+                    int from = random.nextInt(other.size() + 1);
+                    int to = from + random.nextInt(other.size() - from + 1);
+                    list = list.concat(versions.get(earlier).subList(from, to));
+                    reference.addAll(other.subList(from, to));
+                }
+                default -> {
+                    List<Point2D> points = randomPoints(random.nextInt(40));
+                    list = PersistentPointList.of(points).concat(list);
+                    reference.addAll(0, points);
+                }
+            }
+            expect(list.size() == reference.size(),
+                    "list size " + list.size() + ", expected " + reference.size());
+            expect(list.toList().equals(reference), "list " + list.toList() + ", expected " + reference);
+            if (!reference.isEmpty()) {
+                int index = random.nextInt(reference.size());
+                expect(list.get(index).equals(reference.get(index)), "get(" + index + ") differs");
+            }
+        }
+        for (int i = 0; i < versions.size(); i++) {
+            expect(versions.get(i).toList().equals(expected.get(i)), "version " + i + " changed by a later edit");
+        }
+    }
+
+    /**
+     * Upper chain left to right, then the lower chain back, strictly convex vertices only.
+     */
+    private static List<Point2D> referenceHull(List<Point2D> sorted) {
+        if (sorted.size() <= 2) {
+            return sorted;
+        }
+        List<Point2D> upper = chain(sorted, -1);
+        List<Point2D> lower = chain(sorted, 1);
+        List<Point2D> hull = new ArrayList<>(upper);
+        for (int i = lower.size() - 2; i > 0; i--) {
+            hull.add(lower.get(i));
+        }
+        return hull;
+    }
+
+    private static List<Point2D> chain(List<Point2D> sorted, int turn) {
+        List<Point2D> chain = new ArrayList<>();
+        for (Point2D point : sorted) {
+            while (chain.size() >= 2
+                    && turn * Orientation.sign(chain.get(chain.size() - 2), chain.get(chain.size() - 1), point) <= 0) {
+                chain.remove(chain.size() - 1);
+            }
+            chain.add(point);
+        }
+        return chain;
+    }
+
+    private static TreeSet<Point2D> distinct(List<Point2D> points) {
+        TreeSet<Point2D> distinct = new TreeSet<>(LEXICOGRAPHIC);
+        distinct.addAll(points);
+        return distinct;
+    }
+
+    private List<Point2D> randomPoints(int count) {
+        List<Point2D> points = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            points.add(gridPoint(1000));
+        }
+        return points;
+    }
+
+    private Point2D gridPoint(int grid) {
+        return new Point2D(random.nextInt(grid), random.nextInt(grid));
+    }
+
+    private Point2D circlePoint() {
+        double angle = random.nextDouble() * 2 * Math.PI;
+        return new Point2D(Math.round(1e6 * Math.cos(angle)), Math.round(1e6 * Math.sin(angle)));
+    }
+
+    private void expect(boolean condition, String message) {
+        checks++;
+        if (!condition && ++failures <= REPORTED_FAILURES) {
+            System.out.println("FAIL " + message);
+        }
+    }
+}
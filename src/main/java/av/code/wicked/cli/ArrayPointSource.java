@@ -0,0 +1,32 @@
+package av.code.wicked.cli;
+
+/**
+ * Serves points that are already in memory, e.g. from a loaded point set file.
+ */
+public final class ArrayPointSource implements PointSource {
+
+    private final double[] xs;
+    private final double[] ys;
+    private int position;
+
+    public ArrayPointSource(double[] xs, double[] ys) {
+        if (xs.length != ys.length) {
+            throw new IllegalArgumentException("xs and ys differ in length: " + xs.length + " vs " + ys.length);
+        }
+        this.xs = xs;
+        this.ys = ys;
+    }
+
+    @Override
+    public int read(double[] xs, double[] ys, int offset, int max) {
+        int count = Math.min(max, this.xs.length - position);
+        System.arraycopy(this.xs, position, xs, offset, count);
+        System.arraycopy(this.ys, position, ys, offset, count);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,76 @@
+package av.code.wicked.cli;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Reads {@code x,y} lines from a text file. Commas, semicolons and whitespace all separate the two
+ * coordinates; blank lines and lines starting with {@code #} are skipped, and a first data line
+ * that does not parse is taken as a header.
+ */
+public final class CsvPointSource implements PointSource {
+
+    private final BufferedReader reader;
+    private final Path path;
+    private long lineNumber;
+    private boolean seenData;
+
+    public CsvPointSource(Path path) throws IOException {
+        this.path = path;
+        this.reader = Files.newBufferedReader(path, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public int read(double[] xs, double[] ys, int offset, int max) throws IOException {
+        int count = 0;
+        String line;
+        while (count < max && (line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.strip();
+            if (line.isEmpty() || line.charAt(0) == '#') {
+                continue;
+            }
+            int xEnd = 0;
+            while (xEnd < line.length() && !isSeparator(line.charAt(xEnd))) {
+                xEnd++;
+            }
+            int yStart = xEnd;
+            while (yStart < line.length() && isSeparator(line.charAt(yStart))) {
+                yStart++;
+            }
+            try {
+                if (xEnd == line.length()) {
+                    throw new NumberFormatException("missing separator");
+                }
+                double x = Double.parseDouble(line.substring(0, xEnd));
+                double y = Double.parseDouble(line.substring(yStart));
+                if (!Double.isFinite(x) || !Double.isFinite(y)) {
+                    throw new IOException(path + ":" + lineNumber + ": point is not finite");
+                }
+                xs[offset + count] = x;
+                ys[offset + count] = y;
+            } catch (NumberFormatException e) {
+                if (!seenData) {
+                    seenData = true;
+                    continue;
+                }
+                throw new IOException(path + ":" + lineNumber + ": cannot parse point \"" + line + "\"", e);
+            }
+            seenData = true;
+            count++;
+        }
+        return count;
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == ',' || c == ';' || Character.isWhitespace(c);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,169 @@
+package av.code.wicked.cli;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Locale;
+
+import av.code.wicked.io.PointSetFile;
+
+/**
+ * Headless entry point: computes the convex hull of a point file with the same monotone-chain
+ * kernel the UI uses and writes the hull vertices as {@code x,y} lines. Needs no display.
+ * <pre>
+ * HullCli [--format csv|f64le|f64be|chps] [--chunk points] [--cull] input [output]
+ * </pre>
+ * Binary inputs are interleaved {@code x, y} doubles read through memory-mapped windows; the input
+ * is processed in chunks, so its size is not limited by the heap.
+ */
+public final class HullCli {
+
+    private static final int DEFAULT_CHUNK = 1 << 22;
+    private static final int EXIT_IO_ERROR = 1;
+    private static final int EXIT_USAGE = 2;
+
+    private static final String USAGE = """
+            Usage: HullCli [options] <input> [<output>]
+              --format csv|f64le|f64be|chps
+                                        input format; default is csv for .csv/.txt files,
+                                        chps for .chps point set files, f64le otherwise
+              --chunk <points>          points per chunk, at most %d (default %d)
+              --cull                    drop points inside the Akl-Toussaint octagon before sorting
+            Writes one "x,y" line per hull vertex to <output>, or to standard output.
+            """.formatted(StreamingHull.MAX_CHUNK_SIZE, DEFAULT_CHUNK);
+
+    private HullCli() {
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args, System.out, System.err));
+    }
+
+    static int run(String[] args, PrintStream out, PrintStream err) {
+        String format = null;
+        int chunk = DEFAULT_CHUNK;
+        boolean cull = false;
+        Path input = null;
+        Path output = null;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--format" -> format = value(args, ++i);
+                    case "--chunk" -> chunk = chunkSize(value(args, ++i));
+                    case "--cull" -> cull = true;
+                    case "-h", "--help" -> {
+                        out.print(USAGE);
+                        return 0;
+                    }
+                    default -> {
+                        if (args[i].startsWith("--")) {
+                            throw new IllegalArgumentException("unknown option " + args[i]);
+                        } else if (input == null) {
+                            input = Path.of(args[i]);
+                        } else if (output == null) {
+                            output = Path.of(args[i]);
+                        } else {
+                            throw new IllegalArgumentException("unexpected argument " + args[i]);
+                        }
+                    }
+                }
+            }
+            if (input == null) {
+                throw new IllegalArgumentException("missing input file");
+            }
+            if (format == null) {
+                format = defaultFormat(input);
+            }
+            StreamingHull hull = new StreamingHull(chunk, cull);
+            long start = System.nanoTime();
+            try (PointSource source = open(input, format)) {
+                hull.consume(source);
+            }
+            long elapsed = System.nanoTime() - start;
+            write(hull, output, out);
+            err.printf(Locale.ROOT, "%d points, %d hull vertices, %.1f ms%n",
+                    hull.pointsRead(), hull.hullSize(), elapsed / 1e6);
+            return 0;
+        } catch (IllegalArgumentException e) {
+            err.println("HullCli: " + e.getMessage());
+            err.print(USAGE);
+            return EXIT_USAGE;
+        } catch (NoSuchFileException e) {
+            err.println("HullCli: no such file: " + e.getFile());
+            return EXIT_IO_ERROR;
+        } catch (IOException e) {
+            err.println("HullCli: " + e.getMessage());
+            return EXIT_IO_ERROR;
+        }
+    }
+
+    private static String value(String[] args, int i) {
+        if (i >= args.length) {
+            throw new IllegalArgumentException("missing value for " + args[i - 1]);
+        }
+        return args[i];
+    }
+
+    private static int chunkSize(String value) {
+        int chunk;
+        try {
+            chunk = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("--chunk is not a number: " + value);
+        }
+        if (chunk < 1 || chunk > StreamingHull.MAX_CHUNK_SIZE) {
+            throw new IllegalArgumentException("--chunk must be between 1 and " + StreamingHull.MAX_CHUNK_SIZE + ": " + value);
+        }
+        return chunk;
+    }
+
+    private static String defaultFormat(Path input) {
+        String name = input.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv") || name.endsWith(".txt")) {
+            return "csv";
+        }
+        return name.endsWith("." + PointSetFile.EXTENSION) ? "chps" : "f64le";
+    }
+
+    private static PointSource open(Path input, String format) throws IOException {
+        return switch (format) {
+            case "csv" -> new CsvPointSource(input);
+            case "f64le" -> new MappedBinaryPointSource(input, ByteOrder.LITTLE_ENDIAN);
+            case "f64be" -> new MappedBinaryPointSource(input, ByteOrder.BIG_ENDIAN);
+            case "chps" -> {
+                PointSetFile file = PointSetFile.read(input);
+                yield new ArrayPointSource(file.xs(), file.ys());
+            }
+            default -> throw new IllegalArgumentException("unknown format " + format);
+        };
+    }
+
+    private static void write(StreamingHull hull, Path output, PrintStream out) throws IOException {
+        if (output == null) {
+            // Standard output stays open for the caller.
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            writeVertices(hull, writer);
+            writer.flush();
+            return;
+        }
+        try (Writer writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+            writeVertices(hull, writer);
+        }
+    }
+
+    private static void writeVertices(StreamingHull hull, Writer writer) throws IOException {
+        for (int i = 0; i < hull.hullSize(); i++) {
+            writer.write(Double.toString(hull.hullX(i)));
+            writer.write(',');
+            writer.write(Double.toString(hull.hullY(i)));
+            writer.write('\n');
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package av.code.wicked.cli;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * Reads a flat file of interleaved {@code x, y} doubles through memory-mapped windows. Each
+ * {@link #read} maps only the bytes it consumes, so files larger than the heap, or than the 2 GB
+ * limit of a single mapping, stream through without copying into intermediate buffers.
+ */
+public final class MappedBinaryPointSource implements PointSource {
+
+    private static final int BYTES_PER_POINT = 2 * Double.BYTES;
+    private static final int MAX_WINDOW_POINTS = Integer.MAX_VALUE / BYTES_PER_POINT;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final ByteOrder order;
+    private final long pointCount;
+    private long position;
+
+    public MappedBinaryPointSource(Path path, ByteOrder order) throws IOException {
+        this.path = path;
+        this.order = Objects.requireNonNull(order, "order");
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        long size = channel.size();
+        if (size % BYTES_PER_POINT != 0) {
+            channel.close();
+            throw new IOException(path + ": size " + size + " is not a multiple of " + BYTES_PER_POINT + " bytes");
+        }
+        this.pointCount = size / BYTES_PER_POINT;
+    }
+
+    public long pointCount() {
+        return pointCount;
+    }
+
+    @Override
+    public int read(double[] xs, double[] ys, int offset, int max) throws IOException {
+        int count = (int) Math.min(Math.min(max, MAX_WINDOW_POINTS), pointCount - position);
+        if (count <= 0) {
+            return 0;
+        }
+        DoubleBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position * BYTES_PER_POINT, (long) count * BYTES_PER_POINT)
+                .order(order)
+                .asDoubleBuffer();
+        for (int i = 0; i < count; i++) {
+            double x = window.get(2 * i);
+            double y = window.get(2 * i + 1);
+            if (!Double.isFinite(x) || !Double.isFinite(y)) {
+                throw new IOException(path + ": point " + (position + i) + " is not finite; check the byte order");
+            }
+            xs[offset + i] = x;
+            ys[offset + i] = y;
+        }
+        position += count;
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,18 @@
+package av.code.wicked.cli;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Sequential reader of point coordinates into caller-owned primitive arrays, so arbitrarily large
+ * inputs can be processed chunk by chunk without creating a {@code Point2D} per point.
+ */
+public interface PointSource extends Closeable {
+
+    /**
+     * Reads up to {@code max} points into {@code xs}/{@code ys} starting at {@code offset}.
+     *
+     * @return the number of points read; {@code 0} once the input is exhausted
+     */
+    int read(double[] xs, double[] ys, int offset, int max) throws IOException;
+}
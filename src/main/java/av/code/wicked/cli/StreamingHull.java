@@ -0,0 +1,113 @@
+package av.code.wicked.cli;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Objects;
+
+import av.code.wicked.model.MonotoneChainKernel;
+
+/**
+ * Computes the hull of a {@link PointSource} one chunk at a time. Only the vertices of the hull so
+ * far are carried into the next chunk, because hull(A ∪ B) = hull(hull(A) ∪ B); memory is bounded
+ * by the chunk size plus the hull size, not by the input size.
+ */
+public final class StreamingHull {
+
+    /**
+     * Largest chunk, so the chunk, the carried hull and the kernel's output buffer stay far from
+     * the int array limit.
+     */
+    public static final int MAX_CHUNK_SIZE = 1 << 28;
+
+    private final MonotoneChainKernel kernel;
+    private final int chunkSize;
+    private double[] xs = new double[0];
+    private double[] ys = new double[0];
+    private int[] hull = new int[0];
+    private int hullSize;
+    private long pointsRead;
+
+    public StreamingHull(int chunkSize, boolean cullInterior) {
+        if (chunkSize < 1 || chunkSize > MAX_CHUNK_SIZE) {
+            throw new IllegalArgumentException("chunkSize must be between 1 and " + MAX_CHUNK_SIZE + ": " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+        this.kernel = new MonotoneChainKernel(cullInterior);
+    }
+
+    /**
+     * Reads {@code source} to the end and computes the hull of every point it produced.
+     */
+    public void consume(PointSource source) throws IOException {
+        int carried = 0;
+        pointsRead = 0;
+        hullSize = 0;
+        while (true) {
+            ensureCapacity(carried);
+            int read = source.read(xs, ys, carried, chunkSize);
+            if (read == 0) {
+                break;
+            }
+            pointsRead += read;
+            hullSize = kernel.computeHull(xs, ys, carried + read, hull);
+            carried = carryHull();
+        }
+        // The carried vertices are deduplicated and index-ordered; one last pass restores hull order.
+        hullSize = kernel.computeHull(xs, ys, carried, hull);
+    }
+
+    public long pointsRead() {
+        return pointsRead;
+    }
+
+    /**
+     * Number of hull vertices, in the order {@link MonotoneChainKernel} writes them.
+     */
+    public int hullSize() {
+        return hullSize;
+    }
+
+    public double hullX(int i) {
+        return xs[hull[Objects.checkIndex(i, hullSize)]];
+    }
+
+    public double hullY(int i) {
+        return ys[hull[Objects.checkIndex(i, hullSize)]];
+    }
+
+    private int carryHull() {
+        // Collinear boundary points can sit on both chains; keep each index once.
+        Arrays.sort(hull, 0, hullSize);
+        int carried = 0;
+        for (int i = 0; i < hullSize; i++) {
+            int index = hull[i];
+            if (i > 0 && index == hull[i - 1]) {
+                continue;
+            }
+            // Indices are ascending and never behind the write position, so copying in place is safe.
+            xs[carried] = xs[index];
+            ys[carried] = ys[index];
+            carried++;
+        }
+        return carried;
+    }
+
+    /**
+     * Makes room for {@code carried} hull vertices plus a chunk.
+     */
+    private void ensureCapacity(int carried) throws IOException {
+        int capacity;
+        int hullCapacity;
+        try {
+            capacity = Math.addExact(carried, chunkSize);
+            hullCapacity = Math.multiplyExact(2, capacity);
+        } catch (ArithmeticException e) {
+            throw new IOException("hull of " + carried + " vertices is too large to carry with chunks of " + chunkSize, e);
+        }
+        if (xs.length < capacity) {
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
+            hull = new int[hullCapacity];
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package av.code.wicked.io;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import javafx.geometry.Point2D;
+
+/**
+ * Live stream of points read as {@code x,y} text lines on a virtual thread, from a loopback
+ * socket or from a file that keeps growing. Lines use the same separators as the CLI's CSV input;
+ * blank lines, {@code #} comments and lines that do not parse are skipped and counted, so one bad
+ * record does not end the feed.
+ * <p>
+ * Points are handed to the sink on the feed thread. An I/O failure ends the feed and is passed to
+ * the error handler, also on the feed thread; {@link #close()} ends it silently.
+ */
+public final class PointFeed implements Closeable {
+
+    private static final long TAIL_POLL_MILLIS = 50;
+    private static final int TAIL_BUFFER_BYTES = 1 << 16;
+
+    private final String description;
+    private final Closeable resource;
+    private final Consumer<Point2D> sink;
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private volatile boolean closed;
+    private Thread reader;
+
+    private PointFeed(String description, Closeable resource, Consumer<Point2D> sink) {
+        this.description = description;
+        this.resource = resource;
+        this.sink = Objects.requireNonNull(sink, "sink");
+    }
+
+    /**
+     * Listens on {@code port} of the loopback interface and reads one client at a time until it
+     * disconnects, then waits for the next.
+     */
+    public static PointFeed listen(int port, Consumer<Point2D> sink, Consumer<IOException> errorHandler) throws IOException {
+        ServerSocket server = new ServerSocket(port, 1, InetAddress.getLoopbackAddress());
+        PointFeed feed = new PointFeed("port " + server.getLocalPort(), server, sink);
+        feed.start(() -> {
+            while (!feed.closed) {
+                try (Socket client = server.accept();
+                     BufferedReader in = new BufferedReader(new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = in.readLine()) != null) {
+                        feed.accept(line);
+                    }
+                }
+            }
+        }, errorHandler);
+        return feed;
+    }
+
+    /**
+     * Reads {@code file} from the start and then follows appended lines, like {@code tail -f}. A
+     * file that shrinks is taken to be truncated and read again from the start.
+     */
+    public static PointFeed tail(Path file, Consumer<Point2D> sink, Consumer<IOException> errorHandler) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        PointFeed feed = new PointFeed(file.getFileName().toString(), channel, sink);
+        feed.start(() -> {
+            ByteBuffer buffer = ByteBuffer.allocate(TAIL_BUFFER_BYTES);
+            StringBuilder line = new StringBuilder();
+            long position = 0;
+            while (!feed.closed) {
+                if (channel.size() < position) {
+                    position = 0;
+                    line.setLength(0);
+                }
+                int read = channel.read(buffer.clear(), position);
+                if (read <= 0) {
+                    try {
+                        Thread.sleep(TAIL_POLL_MILLIS);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    continue;
+                }
+                position += read;
+                // Lines are ASCII in practice; anything else fails to parse and is counted as rejected.
+                for (int i = 0; i < read; i++) {
+                    char c = (char) (buffer.get(i) & 0xFF);
+                    if (c == '\n') {
+                        feed.accept(line.toString());
+                        line.setLength(0);
+                    } else {
+                        line.append(c);
+                    }
+                }
+            }
+        }, errorHandler);
+        return feed;
+    }
+
+    public String description() {
+        return description;
+    }
+
+    /**
+     * Points passed to the sink so far.
+     */
+    public long receivedCount() {
+        return received.get();
+    }
+
+    /**
+     * Non-blank, non-comment lines skipped because they did not hold a finite point.
+     */
+    public long rejectedCount() {
+        return rejected.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        reader.interrupt();
+        resource.close();
+    }
+
+    private interface FeedLoop {
+        void run() throws IOException;
+    }
+
+    private void start(FeedLoop loop, Consumer<IOException> errorHandler) {
+        reader = Thread.ofVirtual().name("point-feed").start(() -> {
+            try {
+                loop.run();
+            } catch (IOException e) {
+                if (!closed) {
+                    errorHandler.accept(e);
+                }
+            }
+        });
+    }
+
+    private void accept(String text) {
+        String line = text.strip();
+        if (line.isEmpty() || line.charAt(0) == '#') {
+            return;
+        }
+        Point2D point = parse(line);
+        if (point == null) {
+            rejected.incrementAndGet();
+            return;
+        }
+        received.incrementAndGet();
+        sink.accept(point);
+    }
+
+    /**
+     * Parses {@code x,y} with commas, semicolons or whitespace between the coordinates, or returns
+     * {@code null}.
+     */
+    static Point2D parse(String line) {
+        int xEnd = 0;
+        while (xEnd < line.length() && !isSeparator(line.charAt(xEnd))) {
+            xEnd++;
+        }
+        int yStart = xEnd;
+        while (yStart < line.length() && isSeparator(line.charAt(yStart))) {
+            yStart++;
+        }
+        if (xEnd == line.length() || yStart == line.length()) {
+            return null;
+        }
+        try {
+            double x = Double.parseDouble(line.substring(0, xEnd));
+            double y = Double.parseDouble(line.substring(yStart));
+            return Double.isFinite(x) && Double.isFinite(y) ? new Point2D(x, y) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == ',' || c == ';' || Character.isWhitespace(c);
+    }
+}
@@ -0,0 +1,392 @@
+package av.code.wicked.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import av.code.wicked.model.HullStep;
+import av.code.wicked.model.StepLog;
+import javafx.geometry.Point2D;
+
+/**
+ * Versioned binary container for a point set and, optionally, the step log computed from it.
+ * All values are little-endian:
+ * <pre>
+ * offset  size  field
+ *      0     4  magic "CHPS"
+ *      4     2  format version
+ *      6     2  flags; bit 0 = step log present
+ *      8     4  point count n
+ *     12     4  reserved, 0
+ *     16     8  step log offset, 0 if absent
+ *     24     8  step log length in bytes
+ *     32    8n  x coordinates
+ *   32+8n   8n  y coordinates
+ * </pre>
+ * Coordinates are stored as two plain double arrays, so {@link #read(Path)} maps the file and
+ * bulk-transfers each block straight into the arrays the solver consumes, without parsing.
+ * <p>
+ * The step log is stored in the {@link StepLog} encoding, with point indices into the stored
+ * points.
+ */
+public final class PointSetFile {
+
+    public static final int VERSION = 1;
+    public static final String EXTENSION = "chps";
+
+    private static final int MAGIC = 'C' | 'H' << 8 | 'P' << 16 | 'S' << 24;
+    private static final int HEADER_BYTES = 32;
+    private static final int FLAG_STEP_LOG = 1;
+    private static final int STEP_POINT = 1 << 4;
+    private static final int STEP_FOCUS = 1 << 5;
+    private static final int STEP_FOCUS_IS_POINT = 1 << 6;
+    private static final int END_OF_LOG = 0xFF;
+
+    private final double[] xs;
+    private final double[] ys;
+    private List<Point2D> points;
+    private StepLog stepLog;
+
+    private PointSetFile(double[] xs, double[] ys) {
+        this.xs = xs;
+        this.ys = ys;
+    }
+
+    // Reading --------------------------------------------------------------
+
+    /**
+     * Loads a point set file. Coordinates are transferred from a read-only mapping of the file; the
+     * step log, if present, is validated and indexed here and decoded lazily by {@link #steps()}.
+     */
+    public static PointSetFile read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                throw new IOException(path + ": not a point set file");
+            }
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException(path + ": " + size + " bytes is too large to load; stream it with HullCli instead");
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            ByteBuffer buffer = mapped.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getInt(0) != MAGIC) {
+                throw new IOException(path + ": not a point set file");
+            }
+            int version = Short.toUnsignedInt(buffer.getShort(4));
+            if (version > VERSION) {
+                throw new IOException(path + ": format version " + version + " is newer than supported version " + VERSION);
+            }
+            int flags = Short.toUnsignedInt(buffer.getShort(6));
+            int count = buffer.getInt(8);
+            long stepLogOffset = buffer.getLong(16);
+            long stepLogLength = buffer.getLong(24);
+            if (count < 0 || HEADER_BYTES + 16L * count > size) {
+                throw new IOException(path + ": truncated point data");
+            }
+
+            double[] xs = new double[count];
+            double[] ys = new double[count];
+            buffer.slice(HEADER_BYTES, 8 * count).order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer().get(xs);
+            buffer.slice(HEADER_BYTES + 8 * count, 8 * count).order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer().get(ys);
+
+            PointSetFile pointSet = new PointSetFile(xs, ys);
+            if ((flags & FLAG_STEP_LOG) != 0) {
+                if (stepLogOffset < HEADER_BYTES + 16L * count || stepLogLength < 0 || stepLogOffset + stepLogLength > size) {
+                    throw new IOException(path + ": step log out of bounds");
+                }
+                try {
+                    // StepLog.read copies the log off the mapping, so the file is not held open.
+                    pointSet.stepLog = StepLog.read(buffer.slice((int) stepLogOffset, (int) stepLogLength),
+                            pointSet.points());
+                } catch (IllegalArgumentException e) {
+                    throw new IOException(path + ": corrupt step log", e);
+                }
+            }
+            return pointSet;
+        }
+    }
+
+    public int size() {
+        return xs.length;
+    }
+
+    /**
+     * X coordinates as loaded; the array is shared, not copied.
+     */
+    public double[] xs() {
+        return xs;
+    }
+
+    /**
+     * Y coordinates as loaded; the array is shared, not copied.
+     */
+    public double[] ys() {
+        return ys;
+    }
+
+    /**
+     * The points as {@link Point2D}s, created on first call. Steps from {@link #steps()} refer to
+     * these same instances.
+     */
+    public List<Point2D> points() {
+        if (points == null) {
+            List<Point2D> created = new ArrayList<>(xs.length);
+            for (int i = 0; i < xs.length; i++) {
+                created.add(new Point2D(xs[i], ys[i]));
+            }
+            points = created;
+        }
+        return points;
+    }
+
+    public boolean hasStepLog() {
+        return stepLog != null;
+    }
+
+    /**
+     * The stored step log over {@link #points()}, or an empty log if the file has none. Suitable
+     * for {@link av.code.wicked.model.HullAnimationController#loadSteps(StepLog)}.
+     */
+    public StepLog stepLog() {
+        return stepLog != null ? stepLog : StepLog.empty();
+    }
+
+    /**
+     * Starts a new pass over the stored step log, decoding one step per {@link Iterator#next()}.
+     */
+    public Iterator<HullStep> steps() {
+        return stepLog().steps();
+    }
+
+    /**
+     * Number of steps in the stored log; {@code 0} without a log.
+     */
+    public int stepCount() {
+        return stepLog().stepCount();
+    }
+
+    // Writing --------------------------------------------------------------
+
+    /**
+     * Writes {@code points} and, unless {@code steps} is {@code null}, the step log it yields. Every
+     * point a step refers to must be one of {@code points}. The step log is streamed, so it may
+     * come straight from {@link av.code.wicked.model.MonotoneChainHull#steps(List)}.
+     */
+    public static void write(Path path, List<Point2D> points, Iterator<HullStep> steps) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            Output out = new Output(channel);
+            out.position(HEADER_BYTES);
+            for (Point2D point : points) {
+                out.putDouble(point.getX());
+            }
+            for (Point2D point : points) {
+                out.putDouble(point.getY());
+            }
+
+            long stepLogOffset = 0;
+            long stepLogLength = 0;
+            if (steps != null) {
+                stepLogOffset = out.position();
+                writeStepLog(out, points, steps);
+                stepLogLength = out.position() - stepLogOffset;
+            }
+            out.flush();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC)
+                    .putShort((short) VERSION)
+                    .putShort((short) (steps != null ? FLAG_STEP_LOG : 0))
+                    .putInt(points.size())
+                    .putInt(0)
+                    .putLong(stepLogOffset)
+                    .putLong(stepLogLength)
+                    .flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+        }
+    }
+
+    private static void writeStepLog(Output out, List<Point2D> points, Iterator<HullStep> steps) throws IOException {
+        CoordinateIndex pointIndex = new CoordinateIndex(points);
+        Map<String, Integer> descriptions = new HashMap<>();
+        int previousPoint = 0;
+        int previousFocus = 0;
+        while (steps.hasNext()) {
+            HullStep step = steps.next();
+            Point2D point = step.point();
+            Point2D focus = step.focusPoint();
+            boolean focusIsPoint = focus != null && focus.equals(point);
+            int flags = step.action().ordinal()
+                    | (point != null ? STEP_POINT : 0)
+                    | (focus != null ? STEP_FOCUS : 0)
+                    | (focusIsPoint ? STEP_FOCUS_IS_POINT : 0);
+            out.putByte(flags);
+            out.putVarint(step.stepNumber());
+
+            String description = step.description() != null ? step.description() : "";
+            Integer reference = descriptions.get(description);
+            if (reference == null) {
+                out.putVarint(descriptions.size());
+                byte[] utf8 = description.getBytes(StandardCharsets.UTF_8);
+                out.putVarint(utf8.length);
+                out.putBytes(utf8);
+                descriptions.put(description, descriptions.size());
+            } else {
+                out.putVarint(reference);
+            }
+
+            if (point != null) {
+                int index = pointIndex.indexOf(point);
+                out.putVarint(zigzag(index - previousPoint));
+                previousPoint = index;
+            }
+            if (focus != null && !focusIsPoint) {
+                int index = pointIndex.indexOf(focus);
+                out.putVarint(zigzag(index - previousFocus));
+                previousFocus = index;
+            }
+        }
+        out.putByte(END_OF_LOG);
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    /**
+     * Open-addressing map from coordinates to the first index holding them. {@link Point2D#hashCode()}
+     * collides heavily on integer-valued coordinates, which made a {@code HashMap} the bottleneck
+     * when writing step logs for large point sets.
+     */
+    private static final class CoordinateIndex {
+
+        /** Slot layout in {@link #table}: x bits, y bits, index + 1 (0 marks an empty slot). */
+        private static final int STRIDE = 3;
+
+        private final long[] table;
+        private final int mask;
+
+        private CoordinateIndex(List<Point2D> points) {
+            int capacity = Integer.highestOneBit(Math.max(2 * points.size(), 2) - 1) << 1;
+            table = new long[STRIDE * capacity];
+            mask = capacity - 1;
+            for (int i = 0; i < points.size(); i++) {
+                Point2D point = points.get(i);
+                int slot = find(point.getX(), point.getY());
+                if (table[slot + 2] == 0) {
+                    table[slot] = bits(point.getX());
+                    table[slot + 1] = bits(point.getY());
+                    table[slot + 2] = i + 1;
+                }
+            }
+        }
+
+        private int indexOf(Point2D point) {
+            long index = table[find(point.getX(), point.getY()) + 2] - 1;
+            if (index < 0) {
+                throw new IllegalArgumentException("step refers to a point outside the point set: " + point);
+            }
+            return (int) index;
+        }
+
+        /**
+         * Returns the table offset of the slot holding {@code (x, y)}, or of the empty slot where it belongs.
+         */
+        private int find(double x, double y) {
+            long bx = bits(x);
+            long by = bits(y);
+            // Murmur3 finalizer; raw double bits of integer-valued coordinates have all-zero low words.
+            long hash = bx * 0x9E3779B97F4A7C15L + by;
+            hash = (hash ^ (hash >>> 33)) * 0xFF51AFD7ED558CCDL;
+            hash = (hash ^ (hash >>> 33)) * 0xC4CEB9FE1A85EC53L;
+            hash ^= hash >>> 33;
+            int slot = (int) hash & mask;
+            while (table[STRIDE * slot + 2] != 0 && (table[STRIDE * slot] != bx || table[STRIDE * slot + 1] != by)) {
+                slot = (slot + 1) & mask;
+            }
+            return STRIDE * slot;
+        }
+
+        private static long bits(double value) {
+            // Point2D.equals treats -0.0 and 0.0 as equal.
+            return Double.doubleToLongBits(value + 0.0);
+        }
+    }
+
+    /**
+     * Buffered little-endian writer over a file channel that tracks its absolute position.
+     */
+    private static final class Output {
+
+        private static final int BUFFER_BYTES = 1 << 16;
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        private long flushed;
+
+        private Output(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        long position() {
+            return flushed + buffer.position();
+        }
+
+        void position(long position) throws IOException {
+            flush();
+            channel.position(position);
+            flushed = position;
+        }
+
+        void putDouble(double value) throws IOException {
+            ensure(Double.BYTES);
+            buffer.putDouble(value);
+        }
+
+        void putByte(int value) throws IOException {
+            ensure(1);
+            buffer.put((byte) value);
+        }
+
+        void putVarint(int value) throws IOException {
+            ensure(5);
+            while ((value & ~0x7F) != 0) {
+                buffer.put((byte) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            buffer.put((byte) value);
+        }
+
+        void putBytes(byte[] bytes) throws IOException {
+            for (byte b : bytes) {
+                putByte(b);
+            }
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                flushed += channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+    }
+}
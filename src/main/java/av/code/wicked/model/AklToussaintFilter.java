@@ -0,0 +1,127 @@
+package av.code.wicked.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javafx.geometry.Point2D;
+
+/**
+ * Akl–Toussaint interior-point elimination. One pass finds the extreme points in the eight
+ * directions x, y, x+y and x−y; a second pass drops every point strictly inside the octagon they
+ * span. Such points are strictly inside the hull, so the survivors have the same hull as the input
+ * while the sort in front of the chain scans sees far fewer points.
+ */
+public final class AklToussaintFilter {
+
+    /** Outward normals in counter-clockwise order: left, bottom-left, bottom, ..., top-left. */
+    private static final double[] NORMAL_X = {-1, -1, 0, 1, 1, 1, 0, -1};
+    private static final double[] NORMAL_Y = {0, -1, -1, -1, 0, 1, 1, 1};
+
+    private AklToussaintFilter() {
+    }
+
+    /**
+     * Returns the points that may lie on the hull, preserving input order.
+     */
+    public static List<Point2D> cull(List<Point2D> points) {
+        int count = points.size();
+        double[] xs = new double[count];
+        double[] ys = new double[count];
+        for (int i = 0; i < count; i++) {
+            xs[i] = points.get(i).getX();
+            ys[i] = points.get(i).getY();
+        }
+        int[] survivors = new int[count];
+        int kept = cull(xs, ys, 0, count, survivors);
+        List<Point2D> result = new ArrayList<>(kept);
+        for (int i = 0; i < kept; i++) {
+            result.add(points.get(survivors[i]));
+        }
+        return result;
+    }
+
+    /**
+     * Writes the indices in {@code [from, to)} that may lie on the hull to {@code survivors},
+     * preserving order. Inputs whose octagon degenerates to fewer than three corners are kept whole.
+     *
+     * @return the number of surviving indices
+     */
+    public static int cull(double[] xs, double[] ys, int from, int to, int[] survivors) {
+        if (to - from < 4) {
+            return keepAll(from, to, survivors);
+        }
+
+        // Pass 1: extreme point per direction; ties go to the point extreme in the next direction
+        // so the corners stay in counter-clockwise order along the hull.
+        int[] extreme = new int[NORMAL_X.length];
+        double[] best = new double[NORMAL_X.length];
+        Arrays.fill(extreme, from);
+        for (int d = 0; d < NORMAL_X.length; d++) {
+            best[d] = NORMAL_X[d] * xs[from] + NORMAL_Y[d] * ys[from];
+        }
+        for (int i = from + 1; i < to; i++) {
+            for (int d = 0; d < NORMAL_X.length; d++) {
+                double candidate = NORMAL_X[d] * xs[i] + NORMAL_Y[d] * ys[i];
+                if (candidate > best[d] || (candidate == best[d] && beatsOnTie(xs, ys, i, extreme[d], (d + 1) % NORMAL_X.length))) {
+                    extreme[d] = i;
+                    best[d] = candidate;
+                }
+            }
+        }
+
+        double[] cornerX = new double[NORMAL_X.length];
+        double[] cornerY = new double[NORMAL_X.length];
+        int corners = 0;
+        for (int e : extreme) {
+            if (corners > 0 && xs[e] == cornerX[corners - 1] && ys[e] == cornerY[corners - 1]) {
+                continue;
+            }
+            cornerX[corners] = xs[e];
+            cornerY[corners] = ys[e];
+            corners++;
+        }
+        if (corners > 1 && cornerX[0] == cornerX[corners - 1] && cornerY[0] == cornerY[corners - 1]) {
+            corners--;
+        }
+        if (corners < 3) {
+            return keepAll(from, to, survivors);
+        }
+
+        // Pass 2: keep everything not strictly left of all counter-clockwise octagon edges.
+        int kept = 0;
+        for (int i = from; i < to; i++) {
+            if (!strictlyInside(cornerX, cornerY, corners, xs[i], ys[i])) {
+                survivors[kept++] = i;
+            }
+        }
+        return kept;
+    }
+
+    private static boolean beatsOnTie(double[] xs, double[] ys, int candidate, int current, int nextDirection) {
+        double nx = NORMAL_X[nextDirection];
+        double ny = NORMAL_Y[nextDirection];
+        return nx * xs[candidate] + ny * ys[candidate] > nx * xs[current] + ny * ys[current];
+    }
+
+    private static boolean strictlyInside(double[] cornerX, double[] cornerY, int corners, double px, double py) {
+        for (int j = 0; j < corners; j++) {
+            int next = j + 1 == corners ? 0 : j + 1;
+            double ax = cornerX[j];
+            double ay = cornerY[j];
+            double bx = cornerX[next];
+            double by = cornerY[next];
+            if (Orientation.sign(ax, ay, bx, by, px, py) <= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int keepAll(int from, int to, int[] survivors) {
+        for (int i = from; i < to; i++) {
+            survivors[i - from] = i;
+        }
+        return to - from;
+    }
+}
@@ -0,0 +1,102 @@
+package av.code.wicked.model;
+
+import java.util.List;
+import java.util.function.DoubleConsumer;
+
+import javafx.geometry.Point2D;
+
+/**
+ * Picks an engine per input from its size and an estimate of its hull size. The estimate is the
+ * hull of an evenly strided sample of {@value #SAMPLE_SIZE} points: uniform, Gaussian and other
+ * interior-heavy inputs give a sample hull of a few dozen points, while inputs with most points
+ * on or near the boundary give one close to the sample size.
+ * <ul>
+ * <li>Below {@value #MIN_QUICK_HULL_SIZE} points the radix-sorted {@link MonotoneChainHull} is
+ * fastest whatever the hull size.</li>
+ * <li>Above it, a small sample hull selects {@link QuickHull}, which then does a few linear passes
+ * instead of a full sort.</li>
+ * <li>Otherwise the monotone chain's O(n log n) is the safe choice: QuickHull degrades towards
+ * O(nh) there, and {@link ChanHull}, although O(n log h) in the worst case, has higher constants
+ * than the monotone chain at every hull size.</li>
+ * </ul>
+ */
+public final class AutoHullSolver implements HullSolver {
+
+    static final int MIN_QUICK_HULL_SIZE = 1 << 16;
+    static final int SAMPLE_SIZE = 1 << 10;
+    /**
+     * Largest sample hull still considered small. Uniform squares give about 20 and Gaussians about
+     * 10; uniform disks give 30 to 35 and sit where both engines are about as fast.
+     */
+    static final int SMALL_SAMPLE_HULL = SAMPLE_SIZE / 32;
+
+    private final MonotoneChainHull monotoneChain = new MonotoneChainHull();
+    private final QuickHull quickHull = new QuickHull();
+
+    @Override
+    public String name() {
+        return "Auto";
+    }
+
+    /**
+     * Engine used for {@code points}.
+     */
+    public HullSolver select(List<Point2D> points) {
+        int count = points.size();
+        if (count < MIN_QUICK_HULL_SIZE) {
+            return monotoneChain;
+        }
+        double[] xs = new double[SAMPLE_SIZE];
+        double[] ys = new double[SAMPLE_SIZE];
+        for (int i = 0; i < SAMPLE_SIZE; i++) {
+            Point2D point = points.get((int) ((long) i * count / SAMPLE_SIZE));
+            xs[i] = point.getX();
+            ys[i] = point.getY();
+        }
+        return selectBySample(xs, ys);
+    }
+
+    /**
+     * Engine used for the given coordinates.
+     */
+    public HullSolver select(double[] xs, double[] ys) {
+        int count = xs.length;
+        if (count < MIN_QUICK_HULL_SIZE) {
+            return monotoneChain;
+        }
+        double[] sampleXs = new double[SAMPLE_SIZE];
+        double[] sampleYs = new double[SAMPLE_SIZE];
+        for (int i = 0; i < SAMPLE_SIZE; i++) {
+            int index = (int) ((long) i * count / SAMPLE_SIZE);
+            sampleXs[i] = xs[index];
+            sampleYs[i] = ys[index];
+        }
+        return selectBySample(sampleXs, sampleYs);
+    }
+
+    private HullSolver selectBySample(double[] xs, double[] ys) {
+        int sampleHull = new MonotoneChainKernel().computeHull(xs, ys, new int[2 * xs.length]);
+        return sampleHull <= SMALL_SAMPLE_HULL ? quickHull : monotoneChain;
+    }
+
+    @Override
+    public StepCursor steps(List<Point2D> points) {
+        return select(points).steps(points);
+    }
+
+    @Override
+    public PreparedHull prepare(List<Point2D> points, DoubleConsumer progress) {
+        return select(points).prepare(points, progress);
+    }
+
+    @Override
+    public int computeHull(double[] xs, double[] ys, int[] hullOut) {
+        return select(xs, ys).computeHull(xs, ys, hullOut);
+    }
+
+    @Override
+    public void setMetricsListener(HullMetricsListener metricsListener) {
+        monotoneChain.setMetricsListener(metricsListener);
+        quickHull.setMetricsListener(metricsListener);
+    }
+}
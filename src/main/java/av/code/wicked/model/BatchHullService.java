@@ -0,0 +1,175 @@
+package av.code.wicked.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Computes hulls of many independent point sets concurrently, without step logs. Each call starts
+ * a fixed number of virtual-thread workers that own a {@link MonotoneChainKernel} and output
+ * buffer, so scratch is reused across every set a worker handles. Workers claim blocks of
+ * consecutive sets in input order, and results are handed to the caller's sink in that same order
+ * while later blocks are still being computed.
+ * <p>
+ * Workers run at most a few blocks ahead of the sink, so a slow consumer bounds the memory held
+ * by finished results instead of the batch size.
+ */
+public final class BatchHullService {
+
+    static final int BLOCK_SIZE = 64;
+    private static final int BLOCKS_AHEAD_PER_WORKER = 4;
+
+    /**
+     * One input set as parallel coordinate arrays.
+     */
+    public record PointSet(double[] xs, double[] ys) {
+
+        public PointSet {
+            Objects.requireNonNull(xs, "xs");
+            Objects.requireNonNull(ys, "ys");
+            if (xs.length != ys.length) {
+                throw new IllegalArgumentException("xs and ys differ in length: " + xs.length + " vs " + ys.length);
+            }
+        }
+    }
+
+    private final int workers;
+    private final boolean cullInterior;
+
+    public BatchHullService() {
+        this(Runtime.getRuntime().availableProcessors(), false);
+    }
+
+    public BatchHullService(int workers, boolean cullInterior) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("workers must be positive: " + workers);
+        }
+        this.workers = workers;
+        this.cullInterior = cullInterior;
+    }
+
+    /**
+     * Computes the hull of every set and passes each to {@code sink} in input order, on the
+     * calling thread. A hull is given as indices into its set, in the order
+     * {@link MonotoneChainHull#computeHull(double[], double[], int[])} writes them. If a worker
+     * or the sink throws, the remaining work is abandoned and the exception propagates.
+     */
+    public void computeAll(List<PointSet> sets, Consumer<int[]> sink) {
+        Objects.requireNonNull(sink, "sink");
+        List<PointSet> input = List.copyOf(sets);
+        int blockCount = (input.size() + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        if (blockCount == 0) {
+            return;
+        }
+        int workerCount = Math.min(workers, blockCount);
+        Batch batch = new Batch(input, blockCount, workerCount * BLOCKS_AHEAD_PER_WORKER);
+        for (int i = 0; i < workerCount; i++) {
+            Thread.ofVirtual().name("batch-hull-" + i).start(batch::work);
+        }
+        try {
+            for (int block = 0; block < blockCount; block++) {
+                for (int[] hull : batch.await(block)) {
+                    sink.accept(hull);
+                }
+                batch.window.release();
+            }
+        } finally {
+            batch.abort();
+        }
+    }
+
+    /**
+     * Collecting form of {@link #computeAll(List, Consumer)}.
+     */
+    public List<int[]> computeAll(List<PointSet> sets) {
+        List<int[]> hulls = new ArrayList<>(sets.size());
+        computeAll(sets, hulls::add);
+        return hulls;
+    }
+
+    private final class Batch {
+
+        private final List<PointSet> sets;
+        private final int blockCount;
+        private final List<CompletableFuture<int[][]>> results;
+        private final AtomicInteger nextBlock = new AtomicInteger();
+        private final Semaphore window;
+        private volatile boolean aborted;
+
+        Batch(List<PointSet> sets, int blockCount, int blocksAhead) {
+            this.sets = sets;
+            this.blockCount = blockCount;
+            this.results = new ArrayList<>(blockCount);
+            for (int i = 0; i < blockCount; i++) {
+                results.add(new CompletableFuture<>());
+            }
+            this.window = new Semaphore(blocksAhead);
+        }
+
+        void work() {
+            MonotoneChainKernel kernel = new MonotoneChainKernel(cullInterior);
+            int[] buffer = new int[0];
+            while (true) {
+                window.acquireUninterruptibly();
+                int block = nextBlock.getAndIncrement();
+                if (block >= blockCount) {
+                    window.release();
+                    return;
+                }
+                if (aborted) {
+                    // Blocks are claimed in order, so the failure that aborted the batch reaches the caller first.
+                    results.get(block).completeExceptionally(new CancellationException("batch aborted"));
+                    window.release();
+                    return;
+                }
+                int from = block * BLOCK_SIZE;
+                int to = Math.min(from + BLOCK_SIZE, sets.size());
+                int[][] hulls = new int[to - from][];
+                try {
+                    for (int i = from; i < to; i++) {
+                        PointSet set = sets.get(i);
+                        if (buffer.length < 2 * set.xs().length) {
+                            buffer = new int[2 * set.xs().length];
+                        }
+                        int size = kernel.computeHull(set.xs(), set.ys(), buffer);
+                        hulls[i - from] = Arrays.copyOf(buffer, size);
+                    }
+                } catch (RuntimeException | Error ex) {
+                    aborted = true;
+                    results.get(block).completeExceptionally(ex);
+                    return;
+                }
+                results.get(block).complete(hulls);
+            }
+        }
+
+        int[][] await(int block) {
+            try {
+                return results.get(block).join();
+            } catch (CompletionException ex) {
+                if (ex.getCause() instanceof RuntimeException runtime) {
+                    throw runtime;
+                }
+                if (ex.getCause() instanceof Error error) {
+                    throw error;
+                }
+                throw ex;
+            }
+        }
+
+        /**
+         * Stops workers after their current block; wakes any waiting for the window.
+         */
+        void abort() {
+            aborted = true;
+            window.release(blockCount);
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package av.code.wicked.model;
+
+/**
+ * Chan's algorithm: O(n log h) in the worst case, regardless of how the points are distributed.
+ * Each round guesses a hull size m, splits the input into groups of m points, builds every
+ * group's hull chains, and gift-wraps the upper and then the lower hull, asking each group for its
+ * tangent from the current vertex by binary search. A wrap that needs more than m vertices gives
+ * up and the next round squares m, so the total work stays within a constant factor of the last
+ * round. Points that are not on their group's hull cannot be on the overall hull either, so each
+ * round only keeps the group hull points for the next one; on typical inputs the rounds shrink
+ * quickly.
+ * <p>
+ * Groups keep strictly convex chains in the direction of the wrap: the upper chain from left to
+ * right, the lower one from right to left, both turning clockwise. All decisions use the exact
+ * {@link Orientation} predicate, so the wrapped vertices are exactly the strictly convex hull
+ * vertices; collinear boundary points are added back by {@link OutputSensitiveHull}.
+ * <p>
+ * Instances are thread-safe; every computation allocates its own scratch.
+ */
+public final class ChanHull extends OutputSensitiveHull {
+
+    /** Round r guesses m = 2^(2^r), capped here and at the input size. */
+    private static final int MAX_GROUP_BITS = 30;
+
+    /** Guesses of m = 4 cost a full pass over the input but rarely prune or succeed. */
+    private static final int FIRST_ROUND = 2;
+
+    @Override
+    public String name() {
+        return "Chan";
+    }
+
+    @Override
+    int findCandidates(double[] xs, double[] ys, int[] candidatesOut, HullMetricsRecorder recorder) {
+        Rounds rounds = new Rounds(xs, ys);
+        for (int round = FIRST_ROUND; ; round++) {
+            int m = (int) Math.min(xs.length, 1L << Math.min(1 << round, MAX_GROUP_BITS));
+            int found = rounds.wrap(m, candidatesOut);
+            checkInterrupted();
+            if (found >= 0) {
+                recorder.orientationTests += rounds.tests;
+                return found;
+            }
+        }
+    }
+
+    /**
+     * Scratch shared by the rounds of one computation.
+     */
+    private static final class Rounds {
+
+        private final double[] xs;
+        private final double[] ys;
+        private final int leftmost;
+        private final int rightmost;
+        private final int[] active;
+        private int activeCount;
+        private final int[] upperChains;
+        private final int[] lowerChains;
+        private final int[] group;
+        private final int[] chain;
+        private final LexicographicSort sorter = new LexicographicSort();
+        private long tests;
+
+        Rounds(double[] xs, double[] ys) {
+            this.xs = xs;
+            this.ys = ys;
+            int count = xs.length;
+            int left = 0;
+            int right = 0;
+            for (int i = 1; i < count; i++) {
+                if (less(xs, ys, i, left)) {
+                    left = i;
+                }
+                if (less(xs, ys, right, i)) {
+                    right = i;
+                }
+            }
+            this.leftmost = left;
+            this.rightmost = right;
+            this.active = new int[count];
+            for (int i = 0; i < count; i++) {
+                active[i] = i;
+            }
+            this.activeCount = count;
+            this.upperChains = new int[count];
+            this.lowerChains = new int[count];
+            this.group = new int[count];
+            this.chain = new int[count];
+        }
+
+        /**
+         * Wraps the hull with groups of {@code m} active points, writing its vertices to
+         * {@code verticesOut}, or returns {@code -1} if it has more than {@code m} vertices and
+         * leaves only the group hull points active.
+         */
+        int wrap(int m, int[] verticesOut) {
+            int count = activeCount;
+            m = Math.min(m, count);
+            int groups = (count + m - 1) / m;
+            // Group g owns [g * m, g * m + m) of both chain arrays; its chains are stored from that offset.
+            int[] upperSizes = new int[groups];
+            int[] lowerSizes = new int[groups];
+            for (int g = 0; g < groups; g++) {
+                int from = g * m;
+                int size = Math.min(m, count - from);
+                System.arraycopy(active, from, group, 0, size);
+                sorter.sort(xs, ys, group, size);
+                upperSizes[g] = clockwiseChain(size, true, upperChains, from);
+                lowerSizes[g] = clockwiseChain(size, false, lowerChains, from);
+            }
+
+            int found = 0;
+            verticesOut[found++] = leftmost;
+            if (same(xs, ys, leftmost, rightmost)) {
+                return found;
+            }
+            int p = leftmost;
+            while (!same(xs, ys, p, rightmost)) {
+                if (found >= m) {
+                    keepGroupHulls(m, groups, upperSizes, lowerSizes);
+                    return -1;
+                }
+                p = nextVertex(p, true, m, groups, upperSizes);
+                verticesOut[found++] = p;
+            }
+            while (true) {
+                p = nextVertex(p, false, m, groups, lowerSizes);
+                if (same(xs, ys, p, leftmost)) {
+                    return found;
+                }
+                if (found >= m) {
+                    keepGroupHulls(m, groups, upperSizes, lowerSizes);
+                    return -1;
+                }
+                verticesOut[found++] = p;
+            }
+        }
+
+        /**
+         * Compacts the active points to the union of every group's chains; the lower chain's ends
+         * repeat the upper chain's and are skipped.
+         */
+        private void keepGroupHulls(int m, int groups, int[] upperSizes, int[] lowerSizes) {
+            int kept = 0;
+            for (int g = 0; g < groups; g++) {
+                int offset = g * m;
+                System.arraycopy(upperChains, offset, active, kept, upperSizes[g]);
+                kept += upperSizes[g];
+                int inner = lowerSizes[g] - 2;
+                if (inner > 0) {
+                    System.arraycopy(lowerChains, offset + 1, active, kept, inner);
+                    kept += inner;
+                }
+            }
+            activeCount = kept;
+        }
+
+        /**
+         * Builds the strictly convex chain of the sorted group, clockwise: the upper chain left to
+         * right, the lower chain right to left. Coincident points are kept once.
+         */
+        private int clockwiseChain(int size, boolean upper, int[] chains, int offset) {
+            int k = 0;
+            for (int j = 0; j < size; j++) {
+                int p = group[upper ? j : size - 1 - j];
+                while (k >= 2) {
+                    int a = chain[k - 2];
+                    int b = chain[k - 1];
+                    tests++;
+                    if (Orientation.sign(xs[a], ys[a], xs[b], ys[b], xs[p], ys[p]) < 0) {
+                        break;
+                    }
+                    k--;
+                }
+                if (k == 1 && same(xs, ys, chain[0], p)) {
+                    continue;
+                }
+                chain[k++] = p;
+            }
+            System.arraycopy(chain, 0, chains, offset, k);
+            return k;
+        }
+
+        /**
+         * Next hull vertex after {@code p} going clockwise: the most counter-clockwise group
+         * tangent, preferring the farther point when tangents are collinear with {@code p}.
+         */
+        private int nextVertex(int p, boolean upper, int m, int groups, int[] sizes) {
+            int[] chains = upper ? upperChains : lowerChains;
+            int best = -1;
+            for (int g = 0; g < groups; g++) {
+                int candidate = tangent(p, upper, chains, g * m, sizes[g]);
+                if (candidate < 0) {
+                    continue;
+                }
+                if (best < 0) {
+                    best = candidate;
+                    continue;
+                }
+                tests++;
+                int turn = Orientation.sign(xs[p], ys[p], xs[best], ys[best], xs[candidate], ys[candidate]);
+                if (turn > 0 || (turn == 0 && ahead(candidate, best, upper))) {
+                    best = candidate;
+                }
+            }
+            return best;
+        }
+
+        /**
+         * Tangent from {@code p} to one group's chain, among chain points past {@code p} in wrap
+         * direction, or {@code -1} if there are none. Along those points the turn
+         * {@code p, v[i], v[i + 1]} is left or straight up to the tangent and right after it.
+         */
+        private int tangent(int p, boolean upper, int[] chains, int offset, int size) {
+            int lo = 0;
+            int hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (ahead(chains[offset + mid], p, upper)) {
+                    hi = mid;
+                } else {
+                    lo = mid + 1;
+                }
+            }
+            if (lo == size) {
+                return -1;
+            }
+            hi = size - 1;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                int a = chains[offset + mid];
+                int b = chains[offset + mid + 1];
+                tests++;
+                if (Orientation.sign(xs[p], ys[p], xs[a], ys[a], xs[b], ys[b]) < 0) {
+                    hi = mid;
+                } else {
+                    lo = mid + 1;
+                }
+            }
+            return chains[offset + lo];
+        }
+
+        /**
+         * Whether {@code i} comes after {@code j} in wrap direction.
+         */
+        private boolean ahead(int i, int j, boolean upper) {
+            return upper ? less(xs, ys, j, i) : less(xs, ys, i, j);
+        }
+    }
+}
@@ -0,0 +1,344 @@
+package av.code.wicked.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeMap;
+
+import javafx.geometry.Point2D;
+
+/**
+ * Convex hull that follows single point inserts and deletes without recomputing from scratch, in
+ * the manner of Overmars and van Leeuwen. The distinct points are cut into x-then-y ordered buckets
+ * of at most {@value #MAX_BUCKET} points, which are the leaves of a balanced tree. Every node keeps
+ * the upper and lower chains of the points below it as {@link PersistentPointList}s: a leaf by a
+ * monotone chain scan of its bucket, an inner node by joining a prefix of its left child's chain
+ * to a suffix of its right child's at their bridge. Both chains stay x-monotone exactly as in
+ * {@link MonotoneChainHull}, and only strictly convex vertices are kept.
+ * <p>
+ * An insert or delete rescans one bucket, O(B), and then remerges the O(log n) nodes on its path.
+ * A bridge is found by a binary search over one chain nested in a binary search over the other,
+ * O(log² h) orientation tests reading chain points in O(log h) each, and joined in O(log h). An
+ * update is therefore O(B + log n log³ h), and O(log⁴ n) in the worst case whatever the points
+ * removed, plus an amortized share of the rebuild that follows once deletions leave too many small
+ * buckets.
+ */
+public final class DynamicConvexHull {
+
+    private static final Comparator<Point2D> LEXICOGRAPHIC =
+            Comparator.comparingDouble(Point2D::getX).thenComparingDouble(Point2D::getY);
+
+    /** Upper chain vertices must turn right (negative orientation), lower chain vertices left. */
+    private static final int UPPER = -1;
+    private static final int LOWER = 1;
+
+    /** Buckets split above this size; a rebuild cuts buckets of half of it. */
+    static final int MAX_BUCKET = 128;
+    private static final int REBUILD_BUCKET = MAX_BUCKET / 2;
+
+    private final TreeMap<Point2D, Integer> points = new TreeMap<>(LEXICOGRAPHIC);
+    private Node root;
+    private int leafCount;
+
+    public void add(Point2D point) {
+        if (points.merge(point, 1, Integer::sum) > 1) {
+            return;
+        }
+        root = root == null ? leaf(new Point2D[] {point}, 0, 1) : insert(root, point);
+    }
+
+    /**
+     * Adds every point; many new points at once rebuild the tree from the sorted points instead.
+     */
+    public void addAll(List<Point2D> newPoints) {
+        if (newPoints.size() < points.size() / 8) {
+            newPoints.forEach(this::add);
+            return;
+        }
+        for (Point2D point : newPoints) {
+            points.merge(point, 1, Integer::sum);
+        }
+        rebuild();
+    }
+
+    /**
+     * Removes one occurrence of {@code point}.
+     *
+     * @return whether the point was present
+     */
+    public boolean remove(Point2D point) {
+        Integer count = points.get(point);
+        if (count == null) {
+            return false;
+        }
+        if (count > 1) {
+            points.put(point, count - 1);
+            return true;
+        }
+        points.remove(point);
+        root = delete(root, point);
+        // Deletions only empty buckets; once most are small, cut them afresh.
+        if (leafCount > 4 * (points.size() / REBUILD_BUCKET + 1)) {
+            rebuild();
+        }
+        return true;
+    }
+
+    public void clear() {
+        points.clear();
+        root = null;
+        leafCount = 0;
+    }
+
+    public boolean isEmpty() {
+        return points.isEmpty();
+    }
+
+    /**
+     * Number of distinct points currently tracked.
+     */
+    public int size() {
+        return points.size();
+    }
+
+    /**
+     * Hull vertices in the order {@link MonotoneChainHull} combines them: the upper model from
+     * left to right followed by the lower model from right to left without its endpoints.
+     */
+    public List<Point2D> hull() {
+        if (root == null) {
+            return new ArrayList<>();
+        }
+        List<Point2D> hull = root.upper.toList();
+        List<Point2D> lower = root.lower.toList();
+        for (int i = lower.size() - 2; i > 0; i--) {
+            hull.add(lower.get(i));
+        }
+        return hull;
+    }
+
+    /**
+     * A leaf holds a sorted bucket of distinct points, an inner node two children; both keep the
+     * chains of all points below them.
+     */
+    private static final class Node {
+
+        private Point2D[] bucket;
+        private int count;
+        private Node left;
+        private Node right;
+        private int height;
+        private Point2D first;
+        private PersistentPointList upper;
+        private PersistentPointList lower;
+
+        boolean isLeaf() {
+            return bucket != null;
+        }
+    }
+
+    private void rebuild() {
+        Point2D[] sorted = points.keySet().toArray(new Point2D[0]);
+        leafCount = 0;
+        root = sorted.length == 0 ? null : build(sorted, 0, (sorted.length + REBUILD_BUCKET - 1) / REBUILD_BUCKET);
+    }
+
+    /**
+     * Balanced tree over buckets {@code [from, to)} of {@code sorted}.
+     */
+    private Node build(Point2D[] sorted, int from, int to) {
+        if (to - from == 1) {
+            int start = from * REBUILD_BUCKET;
+            return leaf(sorted, start, Math.min(start + REBUILD_BUCKET, sorted.length));
+        }
+        int mid = (from + to) >>> 1;
+        return join(build(sorted, from, mid), build(sorted, mid, to));
+    }
+
+    private Node leaf(Point2D[] sorted, int from, int to) {
+        Node leaf = new Node();
+        leaf.bucket = new Point2D[MAX_BUCKET + 1];
+        leaf.count = to - from;
+        System.arraycopy(sorted, from, leaf.bucket, 0, leaf.count);
+        leafCount++;
+        scanBucket(leaf);
+        return leaf;
+    }
+
+    private Node join(Node left, Node right) {
+        Node node = new Node();
+        node.left = left;
+        node.right = right;
+        update(node);
+        return node;
+    }
+
+    private Node insert(Node node, Point2D point) {
+        if (node.isLeaf()) {
+            int index = -Arrays.binarySearch(node.bucket, 0, node.count, point, LEXICOGRAPHIC) - 1;
+            System.arraycopy(node.bucket, index, node.bucket, index + 1, node.count - index);
+            node.bucket[index] = point;
+            node.count++;
+            if (node.count <= MAX_BUCKET) {
+                scanBucket(node);
+                return node;
+            }
+            int half = node.count / 2;
+            Node right = leaf(node.bucket, half, node.count);
+            Arrays.fill(node.bucket, half, node.count, null);
+            node.count = half;
+            scanBucket(node);
+            return join(node, right);
+        }
+        if (LEXICOGRAPHIC.compare(point, node.right.first) < 0) {
+            node.left = insert(node.left, point);
+        } else {
+            node.right = insert(node.right, point);
+        }
+        return rebalance(node);
+    }
+
+    /**
+     * Removes {@code point}, which is in the subtree, and returns the new subtree or {@code null}
+     * once it is empty.
+     */
+    private Node delete(Node node, Point2D point) {
+        if (node.isLeaf()) {
+            int index = Arrays.binarySearch(node.bucket, 0, node.count, point, LEXICOGRAPHIC);
+            System.arraycopy(node.bucket, index + 1, node.bucket, index, node.count - index - 1);
+            node.bucket[--node.count] = null;
+            if (node.count == 0) {
+                leafCount--;
+                return null;
+            }
+            scanBucket(node);
+            return node;
+        }
+        if (LEXICOGRAPHIC.compare(point, node.right.first) < 0) {
+            node.left = delete(node.left, point);
+            if (node.left == null) {
+                return node.right;
+            }
+        } else {
+            node.right = delete(node.right, point);
+            if (node.right == null) {
+                return node.left;
+            }
+        }
+        return rebalance(node);
+    }
+
+    /**
+     * Restores AVL balance at {@code node}, whose children differ in height by at most two, and
+     * remerges every node whose children changed.
+     */
+    private Node rebalance(Node node) {
+        int balance = node.left.height - node.right.height;
+        if (balance > 1) {
+            if (node.left.left.height < node.left.right.height) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            if (node.right.right.height < node.right.left.height) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        update(node);
+        return node;
+    }
+
+    private Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        update(node);
+        pivot.right = node;
+        update(pivot);
+        return pivot;
+    }
+
+    private Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        update(node);
+        pivot.left = node;
+        update(pivot);
+        return pivot;
+    }
+
+    private static void update(Node node) {
+        node.height = Math.max(node.left.height, node.right.height) + 1;
+        node.first = node.left.first;
+        node.upper = bridge(node.left.upper, node.right.upper, UPPER);
+        node.lower = bridge(node.left.lower, node.right.lower, LOWER);
+    }
+
+    /**
+     * Strict chains of a sorted bucket by one monotone chain pass each.
+     */
+    private static void scanBucket(Node leaf) {
+        leaf.height = 1;
+        leaf.first = leaf.bucket[0];
+        leaf.upper = scan(leaf.bucket, leaf.count, UPPER);
+        leaf.lower = scan(leaf.bucket, leaf.count, LOWER);
+    }
+
+    private static PersistentPointList scan(Point2D[] sorted, int count, int turn) {
+        List<Point2D> chain = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Point2D point = sorted[i];
+            while (chain.size() >= 2
+                    && turn * Orientation.sign(chain.get(chain.size() - 2), chain.get(chain.size() - 1), point) <= 0) {
+                chain.remove(chain.size() - 1);
+            }
+            chain.add(point);
+        }
+        return PersistentPointList.of(chain);
+    }
+
+    /**
+     * Chain of two chains whose points are all ordered before those of {@code right}: a prefix of
+     * {@code left} up to its bridge point, then a suffix of {@code right} from its bridge point.
+     * <p>
+     * The right bridge point is the first {@code right[j]} whose successor falls strictly inside
+     * the tangent from {@code right[j]} to {@code left}; the left one is that tangent's point. Ties
+     * along the bridge go to the outermost points, so the result stays strictly convex.
+     */
+    private static PersistentPointList bridge(PersistentPointList left, PersistentPointList right, int turn) {
+        int lo = 0;
+        int hi = right.size() - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            Point2D touch = left.get(tangent(left, right.get(mid), turn));
+            if (turn * Orientation.sign(touch, right.get(mid), right.get(mid + 1)) > 0) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
+            }
+        }
+        int tangent = tangent(left, right.get(lo), turn);
+        return left.subList(0, tangent + 1).concat(right.subList(lo, right.size()));
+    }
+
+    /**
+     * Index of the point where the tangent from {@code point}, which follows every point of the
+     * chain, touches it: the first {@code chain[i]} from which {@code point} is not inside the
+     * edge to {@code chain[i + 1]}.
+     */
+    private static int tangent(PersistentPointList chain, Point2D point, int turn) {
+        int lo = 0;
+        int hi = chain.size() - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (turn * Orientation.sign(chain.get(mid), chain.get(mid + 1), point) <= 0) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
+            }
+        }
+        return lo;
+    }
+}
@@ -1,11 +1,13 @@
 package av.code.wicked.model;
 
 public enum HullAction {
+    FILTERED,
     SORTED,
     UPPER_APPEND,
     UPPER_REDUCTION,
     LOWER_APPEND,
     LOWER_REDUCTION,
+    LOWER_TRIM,
     FINALIZED
 }
 
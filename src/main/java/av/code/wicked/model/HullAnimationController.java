@@ -1,39 +1,77 @@
 package av.code.wicked.model;
 
-import java.util.Collections;
-import java.util.Iterator;
-import java.util.List;
 import java.util.function.Consumer;
 
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
+import javafx.animation.AnimationTimer;
 import javafx.util.Duration;
 
 /**
- * Drives playback of {@link HullStep} sequences. The controller feeds steps to the
- * UI via callbacks at a fixed cadence so visualization stays decoupled from the
- * convex model computation performed by {@link MonotoneChainHull}.
+ * Drives playback of {@link HullStep} sequences. The controller applies each delta to its
+ * {@link HullChainState} and feeds steps to the UI via callbacks so visualization stays decoupled
+ * from the convex model computation performed by {@link MonotoneChainHull}.
+ * <p>
+ * Playback is driven by the JavaFX pulse: each frame applies as many steps as the configured
+ * {@linkplain #setStepsPerSecond speed} calls for and hands only the last of them to the step
+ * consumer, so the UI renders once per frame however fast playback runs. If applying a frame's
+ * steps exceeds {@value #FRAME_BUDGET_MILLIS} ms, the remaining backlog is dropped and playback
+ * runs slower than requested instead of stalling frames.
+ * <p>
+ * Steps are played from a {@link StepLog}, which is decoded one step at a time as playback
+ * advances, so its length is known up front and every step is reachable. {@link #seek(int)}
+ * replays short forward jumps inline and otherwise restores the log's nearest checkpoint;
+ * {@link StepLog#seek(int)} can also run on another thread and hand its result to
+ * {@link #moveTo(StepLog.Position)}.
  */
 public class HullAnimationController {
 
-    private final Timeline timeline;
-    private List<HullStep> steps = Collections.emptyList();
-    private Iterator<HullStep> iterator = Collections.emptyIterator();
+    static final long FRAME_BUDGET_MILLIS = 8;
+
+    private static final long FRAME_BUDGET_NANOS = FRAME_BUDGET_MILLIS * 1_000_000;
+    private static final int BUDGET_CHECK_MASK = 0xFF;
+
+    private final AnimationTimer timer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            onPulse(now);
+        }
+    };
+    private double stepsPerSecond;
+    private boolean playing;
+    private long lastPulse;
+    private double pendingSteps;
+    private StepLog stepLog = StepLog.empty();
+    private StepCursor iterator = stepLog.steps();
+    private int position = -1;
+    private HullChainState chainState = new HullChainState();
     private Consumer<HullStep> stepConsumer = step -> {};
     private Runnable resetListener = () -> {};
     private Runnable completionListener = () -> {};
 
+    /**
+     * @param interval initial time between steps; see {@link #setStepsPerSecond(double)}
+     */
     public HullAnimationController(Duration interval) {
-        timeline = new Timeline(new KeyFrame(interval, event -> playNextStep()));
-        timeline.setCycleCount(Timeline.INDEFINITE);
+        stepsPerSecond = checkStepsPerSecond(1000 / interval.toMillis());
     }
 
-    public void loadSteps(List<HullStep> steps) {
-        this.steps = steps == null ? Collections.emptyList() : List.copyOf(steps);
-        this.iterator = this.steps.iterator();
+    public void loadSteps(StepLog stepLog) {
+        this.stepLog = stepLog != null ? stepLog : StepLog.empty();
+        rewind();
         resetListener.run();
     }
 
+    public StepLog stepLog() {
+        return stepLog;
+    }
+
+    /**
+     * Starts a new pass over the loaded steps that is independent of playback, e.g. to save them
+     * from another thread.
+     */
+    public StepCursor replaySteps() {
+        return stepLog.steps();
+    }
+
     public void setStepConsumer(Consumer<HullStep> stepConsumer) {
         this.stepConsumer = stepConsumer != null ? stepConsumer : step -> {};
     }
@@ -46,23 +84,70 @@ public class HullAnimationController {
         this.completionListener = completionListener != null ? completionListener : () -> {};
     }
 
+    /**
+     * Upper/lower model after the most recently played step.
+     */
+    public HullChainState chainState() {
+        return chainState;
+    }
+
     public boolean hasSteps() {
-        return !steps.isEmpty();
+        return stepLog.stepCount() > 0;
+    }
+
+    /**
+     * Number of steps in the loaded sequence.
+     */
+    public int stepCount() {
+        return stepLog.stepCount();
+    }
+
+    /**
+     * Index of the most recently played step, or {@code -1} before the first step.
+     */
+    public int position() {
+        return position;
+    }
+
+    public double getStepsPerSecond() {
+        return stepsPerSecond;
+    }
+
+    /**
+     * Sets the playback speed; takes effect from the next frame, also while playing.
+     */
+    public void setStepsPerSecond(double stepsPerSecond) {
+        this.stepsPerSecond = checkStepsPerSecond(stepsPerSecond);
+    }
+
+    private static double checkStepsPerSecond(double stepsPerSecond) {
+        if (!(stepsPerSecond > 0) || Double.isInfinite(stepsPerSecond)) {
+            throw new IllegalArgumentException("stepsPerSecond must be positive and finite: " + stepsPerSecond);
+        }
+        return stepsPerSecond;
     }
 
     public boolean isPlaying() {
-        return timeline.getStatus() == Timeline.Status.RUNNING;
+        return playing;
     }
 
     public void play() {
-        if (steps.isEmpty()) {
+        if (!hasSteps() || playing) {
             return;
         }
-        timeline.play();
+        playing = true;
+        // The first step shows on the next frame; later ones follow at the configured speed.
+        pendingSteps = 1;
+        lastPulse = -1;
+        timer.start();
     }
 
     public void pause() {
-        timeline.pause();
+        if (!playing) {
+            return;
+        }
+        playing = false;
+        timer.stop();
     }
 
     public void stepForward() {
@@ -71,17 +156,128 @@ public class HullAnimationController {
 
     public void reset() {
         pause();
-        iterator = steps.iterator();
+        rewind();
         resetListener.run();
     }
 
+    /**
+     * Makes {@code stepIndex} the most recently played step and hands only that step to the step
+     * consumer; the deltas in between are applied silently. Indices past the end stop at the last
+     * step. Jumps of up to {@value StepLog#CHECKPOINT_INTERVAL} steps forward are replayed from
+     * the current position, others start from a checkpoint of the log. Playback, if running,
+     * continues from the new position.
+     */
+    public void seek(int stepIndex) {
+        if (stepIndex < 0) {
+            throw new IllegalArgumentException("stepIndex must not be negative: " + stepIndex);
+        }
+        if (!hasSteps()) {
+            return;
+        }
+        int target = Math.min(stepIndex, stepLog.stepCount() - 1);
+        if (target == position) {
+            return;
+        }
+        if (!isNearby(target)) {
+            moveTo(stepLog.seek(target));
+            return;
+        }
+        HullStep step = null;
+        while (position < target) {
+            step = advance();
+        }
+        stepConsumer.accept(step);
+    }
+
+    /**
+     * Whether {@link #seek(int)} reaches {@code stepIndex} by replaying forward from the current
+     * position rather than from a checkpoint.
+     */
+    public boolean isNearby(int stepIndex) {
+        return stepIndex > position && stepIndex - position <= StepLog.CHECKPOINT_INTERVAL;
+    }
+
+    /**
+     * Continues from a position of the loaded log, e.g. one computed off the JavaFX thread, and
+     * hands its step to the step consumer. The controller takes over the position's chains and
+     * cursor. Positions of another log are ignored, as the log was replaced in the meantime.
+     */
+    public void moveTo(StepLog.Position target) {
+        if (target.log() != stepLog) {
+            return;
+        }
+        chainState = target.chains();
+        iterator = target.cursor();
+        position = target.index();
+        stepConsumer.accept(target.step());
+    }
+
+    private void rewind() {
+        iterator = stepLog.steps();
+        position = -1;
+        chainState.clear();
+    }
+
+    private void onPulse(long now) {
+        if (lastPulse >= 0) {
+            pendingSteps += (now - lastPulse) / 1e9 * stepsPerSecond;
+        }
+        lastPulse = now;
+        long due = (long) pendingSteps;
+        if (due == 0) {
+            return;
+        }
+        pendingSteps -= due;
+        PlaybackPulseEvent event = new PlaybackPulseEvent();
+        event.begin();
+        long deadline = System.nanoTime() + FRAME_BUDGET_NANOS;
+        HullStep last = null;
+        int applied = 0;
+        boolean dropped = false;
+        for (long i = 0; i < due; i++) {
+            if (!iterator.hasNext()) {
+                if (last != null) {
+                    stepConsumer.accept(last);
+                }
+                commitPulse(event, applied, false);
+                pause();
+                completionListener.run();
+                return;
+            }
+            last = advance();
+            applied++;
+            if ((i & BUDGET_CHECK_MASK) == BUDGET_CHECK_MASK && System.nanoTime() > deadline) {
+                pendingSteps = 0;
+                dropped = true;
+                break;
+            }
+        }
+        stepConsumer.accept(last);
+        commitPulse(event, applied, dropped);
+    }
+
+    private void commitPulse(PlaybackPulseEvent event, int applied, boolean backlogDropped) {
+        if (event.shouldCommit()) {
+            event.stepsApplied = applied;
+            event.position = position;
+            event.backlogDropped = backlogDropped;
+            event.commit();
+        }
+    }
+
     private void playNextStep() {
-        if (iterator == null || !iterator.hasNext()) {
+        if (!iterator.hasNext()) {
             pause();
             completionListener.run();
             return;
         }
+        stepConsumer.accept(advance());
+    }
+
+    private HullStep advance() {
         HullStep step = iterator.next();
-        stepConsumer.accept(step);
+        chainState.apply(step);
+        position++;
+        return step;
     }
 }
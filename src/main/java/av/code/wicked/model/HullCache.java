@@ -0,0 +1,144 @@
+package av.code.wicked.model;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import javafx.geometry.Point2D;
+
+/**
+ * Least recently used {@link PreparedHull} results, keyed by solver and by a fingerprint of the
+ * point set, under a budget of {@link PreparedHull#estimatedBytes() estimated} heap bytes. A
+ * prepared hull holds the solver's finished work as an encoded {@link StepLog} with its seek
+ * checkpoints, so an entry serves the hull and the full animation without sorting or scanning
+ * the points again.
+ * <p>
+ * The fingerprint ignores point order and counts duplicates: two independently mixed 64-bit
+ * hashes of every point are summed, so adding a point and removing it again returns to the
+ * previous key. Distinct point sets share a key with probability around 2^-128.
+ * <p>
+ * Instances are not thread-safe.
+ */
+public final class HullCache {
+
+    private final long budgetBytes;
+    private final LinkedHashMap<Key, PreparedHull> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public HullCache(long budgetBytes) {
+        if (budgetBytes < 0) {
+            throw new IllegalArgumentException("budgetBytes must not be negative: " + budgetBytes);
+        }
+        this.budgetBytes = budgetBytes;
+    }
+
+    /**
+     * Identifies the result of one solver for one point set.
+     */
+    public record Key(String solverName, int pointCount, long sum, long mixedSum) {
+
+        public Key {
+            Objects.requireNonNull(solverName, "solverName");
+        }
+    }
+
+    /**
+     * Key of {@code points} for the solver named {@code solverName}, in one pass over the points.
+     */
+    public static Key key(String solverName, List<Point2D> points) {
+        long sum = 0;
+        long mixedSum = 0;
+        for (Point2D point : points) {
+            // Adding 0.0 turns -0.0 into 0.0, which Point2D considers equal.
+            long hash = mix(Double.doubleToLongBits(point.getX() + 0.0)
+                    ^ mix(Double.doubleToLongBits(point.getY() + 0.0) + 0x9E3779B97F4A7C15L));
+            sum += hash;
+            mixedSum += mix(hash + 0xC2B2AE3D27D4EB4FL);
+        }
+        return new Key(solverName, points.size(), sum, mixedSum);
+    }
+
+    /**
+     * Cached result for {@code key}, which becomes the most recently used, or {@code null}.
+     */
+    public PreparedHull get(Key key) {
+        PreparedHull prepared = entries.get(key);
+        if (prepared == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return prepared;
+    }
+
+    /**
+     * Stores {@code prepared} as the most recently used entry and evicts the least recently used
+     * ones beyond the budget. Results larger than the whole budget are not stored.
+     */
+    public void put(Key key, PreparedHull prepared) {
+        Objects.requireNonNull(key, "key");
+        Objects.requireNonNull(prepared, "prepared");
+        long size = prepared.estimatedBytes();
+        PreparedHull previous = entries.remove(key);
+        if (previous != null) {
+            bytes -= previous.estimatedBytes();
+        }
+        if (size > budgetBytes) {
+            return;
+        }
+        Iterator<Map.Entry<Key, PreparedHull>> eldest = entries.entrySet().iterator();
+        while (bytes + size > budgetBytes) {
+            bytes -= eldest.next().getValue().estimatedBytes();
+            eldest.remove();
+            evictions++;
+        }
+        entries.put(key, prepared);
+        bytes += size;
+    }
+
+    public void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Estimated heap bytes held by the entries.
+     */
+    public long bytes() {
+        return bytes;
+    }
+
+    public long budgetBytes() {
+        return budgetBytes;
+    }
+
+    public long hits() {
+        return hits;
+    }
+
+    public long misses() {
+        return misses;
+    }
+
+    public long evictions() {
+        return evictions;
+    }
+
+    /**
+     * The SplitMix64 finalizer.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,70 @@
+package av.code.wicked.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javafx.geometry.Point2D;
+
+/**
+ * Mutable upper/lower model rebuilt by applying {@link HullStep} deltas in order. Each step
+ * touches at most two points, so replay cost per step is constant regardless of hull size.
+ */
+public final class HullChainState {
+
+    private final List<Point2D> upper = new ArrayList<>();
+    private final List<Point2D> lower = new ArrayList<>();
+    private final List<Point2D> upperView = Collections.unmodifiableList(upper);
+    private final List<Point2D> lowerView = Collections.unmodifiableList(lower);
+
+    public void apply(HullStep step) {
+        switch (step.action()) {
+            case UPPER_APPEND -> upper.add(step.point());
+            case UPPER_REDUCTION -> removeMiddle(upper);
+            case LOWER_APPEND -> lower.add(step.point());
+            case LOWER_REDUCTION -> removeMiddle(lower);
+            case LOWER_TRIM -> trimEnds(lower);
+            case FILTERED, SORTED, FINALIZED -> {
+                // Metadata only; the chains are unchanged.
+            }
+        }
+    }
+
+    public void clear() {
+        upper.clear();
+        lower.clear();
+    }
+
+    /**
+     * Replaces the chains, e.g. with those of a {@link StepLog} checkpoint.
+     */
+    void restore(List<Point2D> upper, List<Point2D> lower) {
+        this.upper.clear();
+        this.upper.addAll(upper);
+        this.lower.clear();
+        this.lower.addAll(lower);
+    }
+
+    public List<Point2D> upperHull() {
+        return upperView;
+    }
+
+    public List<Point2D> lowerHull() {
+        return lowerView;
+    }
+
+    private void removeMiddle(List<Point2D> chain) {
+        if (chain.size() > 1) {
+            chain.remove(chain.size() - 2);
+        }
+    }
+
+    private void trimEnds(List<Point2D> chain) {
+        if (!chain.isEmpty()) {
+            chain.remove(0);
+        }
+        if (!chain.isEmpty()) {
+            chain.remove(chain.size() - 1);
+        }
+    }
+}
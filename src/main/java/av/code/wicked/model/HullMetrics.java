@@ -0,0 +1,33 @@
+package av.code.wicked.model;
+
+/**
+ * Instrumentation of one complete pass of the monotone-chain solver, reported to a
+ * {@link HullMetricsListener}. Phase timings only cover time spent inside the solver, so a pass
+ * consumed lazily during playback reports the same work as one drained at once.
+ * <p>
+ * Preparing a hull records its metrics once, keeps them as {@link PreparedHull#metrics()} and
+ * reports them to the listener installed at that time; replaying the prepared steps does no solver
+ * work and reports nothing. A lazy pass from {@link HullSolver#steps} reports when it ends.
+ * {@code pushes} counts chain appends, {@code pops} counts reductions, and each reduction check is
+ * one {@code orientationTests}.
+ * <p>
+ * {@link QuickHull} and {@link ChanHull} report once per computation instead, with their candidate
+ * search as the cull phase and the points that are not candidates as culled.
+ */
+public record HullMetrics(
+        int inputCount,
+        int culledCount,
+        long orientationTests,
+        long pushes,
+        long pops,
+        long cullNanos,
+        long sortNanos,
+        long upperNanos,
+        long lowerNanos,
+        long mergeNanos
+) {
+
+    public long totalNanos() {
+        return cullNanos + sortNanos + upperNanos + lowerNanos + mergeNanos;
+    }
+}
@@ -0,0 +1,13 @@
+package av.code.wicked.model;
+
+/**
+ * Receives {@link HullMetrics} when a solver pass finishes. Called on the thread that completed
+ * the pass, which need not be the JavaFX thread.
+ *
+ * @see MonotoneChainHull#setMetricsListener(HullMetricsListener)
+ */
+@FunctionalInterface
+public interface HullMetricsListener {
+
+    void passCompleted(HullMetrics metrics);
+}
@@ -0,0 +1,40 @@
+package av.code.wicked.model;
+
+/**
+ * Mutable counters behind {@link HullMetrics} for one generator pass. Lazy passes only hold a
+ * recorder while a listener is installed, so uninstrumented passes skip all of this behind a
+ * single null check. Preparing always records, as it counts per phase rather than per step and
+ * the {@link PreparedHull} keeps the result; the listener is then optional.
+ */
+final class HullMetricsRecorder {
+
+    private final HullMetricsListener listener;
+    long cullNanos;
+    long sortNanos;
+    long orientationTests;
+    long pushes;
+    long pops;
+    long upperNanos;
+    long lowerNanos;
+    long mergeNanos;
+
+    HullMetricsRecorder(HullMetricsListener listener) {
+        this.listener = listener;
+    }
+
+    HullMetrics metrics(int inputCount, int culledCount) {
+        return new HullMetrics(inputCount, culledCount, orientationTests, pushes, pops,
+                cullNanos, sortNanos, upperNanos, lowerNanos, mergeNanos);
+    }
+
+    /**
+     * Hands the counters to the listener, if any, and returns them.
+     */
+    HullMetrics report(int inputCount, int culledCount) {
+        HullMetrics metrics = metrics(inputCount, culledCount);
+        if (listener != null) {
+            listener.passCompleted(metrics);
+        }
+        return metrics;
+    }
+}
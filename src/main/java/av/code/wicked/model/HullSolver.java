@@ -0,0 +1,53 @@
+package av.code.wicked.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.DoubleConsumer;
+
+import javafx.geometry.Point2D;
+
+/**
+ * Convex hull engine. Every engine describes its result in the {@link HullStep} vocabulary, so
+ * {@link HullAnimationController}, {@link HullChainState} and the point set file format work with
+ * any of them, and every engine returns the same hull as {@link MonotoneChainHull}: the upper model
+ * from the lexicographically smallest to the largest point, then the trimmed lower model, with
+ * collinear boundary points kept once.
+ */
+public interface HullSolver {
+
+    /**
+     * Short display name, e.g. for a solver picker.
+     */
+    String name();
+
+    /**
+     * Steps for {@code points}; the input is copied, so later edits do not affect the cursor.
+     */
+    StepCursor steps(List<Point2D> points);
+
+    /**
+     * Runs the expensive part of the solver eagerly, e.g. on a background thread. {@code progress}
+     * receives the completed fraction; interrupting the calling thread may cancel with a
+     * {@link java.util.concurrent.CancellationException}.
+     */
+    PreparedHull prepare(List<Point2D> points, DoubleConsumer progress);
+
+    /**
+     * Writes the hull of the given coordinates to {@code hullOut} as point indices, skipping the
+     * step log; {@code hullOut} needs room for {@code 2 * xs.length} indices.
+     *
+     * @return the number of hull indices written
+     */
+    int computeHull(double[] xs, double[] ys, int[] hullOut);
+
+    /**
+     * Installs a listener for computations started from now on, or removes it with {@code null}.
+     */
+    void setMetricsListener(HullMetricsListener metricsListener);
+
+    default List<HullStep> compute(List<Point2D> points) {
+        List<HullStep> steps = new ArrayList<>();
+        steps(points).forEachRemaining(steps::add);
+        return steps;
+    }
+}
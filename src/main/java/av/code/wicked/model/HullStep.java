@@ -1,18 +1,19 @@
 package av.code.wicked.model;
 
-import java.util.List;
-
 import javafx.geometry.Point2D;
 
 /**
- * Snapshot emitted by {@link MonotoneChainHull} describing the current upper/lower model
- * and metadata for {@link HullAnimationController} to replay on the JavaFX canvas.
+ * Delta emitted by a {@link HullSolver} describing the single upper/lower model mutation
+ * performed at a numbered step. {@link HullAnimationController} replays these deltas through a
+ * {@link HullChainState} so the full chains are rebuilt on demand instead of stored per step.
+ * <p>
+ * {@code point} is the appended point for {@code *_APPEND} actions, the removed middle point for
+ * {@code *_REDUCTION} actions and {@code null} otherwise.
  */
 public record HullStep(
         int stepNumber,
         HullAction action,
-        List<Point2D> upperHull,
-        List<Point2D> lowerHull,
+        Point2D point,
         String description,
         Point2D focusPoint
 ) {}
@@ -0,0 +1,217 @@
+package av.code.wicked.model;
+
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Sorts an index permutation of parallel coordinate arrays by x, then y, without boxing or
+ * comparators. Large inputs are LSD radix-sorted on an order-preserving 64-bit key of x, skipping
+ * digit passes that every key shares; runs of equal x are then ordered by y with an introsort.
+ * Small inputs and tie runs go straight to the introsort. {@code -0.0} and {@code 0.0} compare
+ * equal, as they do geometrically.
+ * <p>
+ * An interrupted thread stops between radix passes with a {@link CancellationException}. Radix
+ * scratch is allocated on first use and reused; instances are not thread-safe.
+ */
+final class LexicographicSort {
+
+    /** Below this size the radix passes and histograms cost more than they save. */
+    private static final int RADIX_THRESHOLD = 1 << 10;
+
+    private static final int INSERTION_SORT_THRESHOLD = 24;
+    private static final int DIGIT_BITS = 11;
+    private static final int RADIX = 1 << DIGIT_BITS;
+    private static final int DIGIT_MASK = RADIX - 1;
+    private static final int PASSES = (Long.SIZE + DIGIT_BITS - 1) / DIGIT_BITS;
+
+    private int[] buffer = new int[0];
+    private int[][] histograms;
+
+    /**
+     * Sorts {@code a[0, count)} by the coordinates the indices refer to.
+     */
+    void sort(double[] xs, double[] ys, int[] a, int count) {
+        if (count < RADIX_THRESHOLD) {
+            sort(xs, ys, a, 0, count, depthLimit(count));
+            return;
+        }
+        radixSortByX(xs, a, count);
+        checkInterrupted();
+        int runStart = 0;
+        for (int i = 1; i <= count; i++) {
+            if (i == count || xs[a[i]] != xs[a[runStart]]) {
+                if (i - runStart > 1) {
+                    sort(xs, ys, a, runStart, i, depthLimit(i - runStart));
+                }
+                runStart = i;
+            }
+        }
+    }
+
+    /**
+     * Maps a double to a long whose unsigned order matches the numeric order; {@code -0.0} is
+     * folded into {@code 0.0}.
+     */
+    static long key(double value) {
+        long bits = Double.doubleToRawLongBits(value + 0.0);
+        return bits ^ ((bits >> 63) | Long.MIN_VALUE);
+    }
+
+    private void radixSortByX(double[] xs, int[] a, int count) {
+        if (histograms == null) {
+            histograms = new int[PASSES][RADIX];
+        } else {
+            for (int[] histogram : histograms) {
+                Arrays.fill(histogram, 0);
+            }
+        }
+        if (buffer.length < count) {
+            buffer = new int[count];
+        }
+        for (int i = 0; i < count; i++) {
+            long k = key(xs[a[i]]);
+            for (int pass = 0; pass < PASSES; pass++) {
+                histograms[pass][(int) (k >>> (pass * DIGIT_BITS)) & DIGIT_MASK]++;
+            }
+        }
+
+        int[] src = a;
+        int[] dst = buffer;
+        long firstKey = key(xs[a[0]]);
+        for (int pass = 0; pass < PASSES; pass++) {
+            checkInterrupted();
+            int shift = pass * DIGIT_BITS;
+            int[] offsets = histograms[pass];
+            if (offsets[(int) (firstKey >>> shift) & DIGIT_MASK] == count) {
+                // Every key has the same digit here; the pass would not move anything.
+                continue;
+            }
+            int sum = 0;
+            for (int digit = 0; digit < RADIX; digit++) {
+                int bucket = offsets[digit];
+                offsets[digit] = sum;
+                sum += bucket;
+            }
+            for (int i = 0; i < count; i++) {
+                int index = src[i];
+                dst[offsets[(int) (key(xs[index]) >>> shift) & DIGIT_MASK]++] = index;
+            }
+            int[] swap = src;
+            src = dst;
+            dst = swap;
+        }
+        if (src != a) {
+            System.arraycopy(src, 0, a, 0, count);
+        }
+    }
+
+    private static void checkInterrupted() {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("sort interrupted");
+        }
+    }
+
+    private static int depthLimit(int count) {
+        return 2 * (32 - Integer.numberOfLeadingZeros(Math.max(count, 1)));
+    }
+
+    // Introsort over the index permutation, ordering by x then y ------------
+
+    private static void sort(double[] xs, double[] ys, int[] a, int lo, int hi, int depth) {
+        while (hi - lo > INSERTION_SORT_THRESHOLD) {
+            if (depth-- == 0) {
+                heapSort(xs, ys, a, lo, hi);
+                return;
+            }
+            int split = partition(xs, ys, a, lo, hi);
+            if (split - lo < hi - split) {
+                sort(xs, ys, a, lo, split, depth);
+                lo = split;
+            } else {
+                sort(xs, ys, a, split, hi, depth);
+                hi = split;
+            }
+        }
+        insertionSort(xs, ys, a, lo, hi);
+    }
+
+    private static int partition(double[] xs, double[] ys, int[] a, int lo, int hi) {
+        int last = hi - 1;
+        int mid = (lo + last) >>> 1;
+        if (less(xs, ys, a[mid], a[lo])) {
+            swap(a, mid, lo);
+        }
+        if (less(xs, ys, a[last], a[mid])) {
+            swap(a, last, mid);
+            if (less(xs, ys, a[mid], a[lo])) {
+                swap(a, mid, lo);
+            }
+        }
+        double px = xs[a[mid]];
+        double py = ys[a[mid]];
+        int i = lo - 1;
+        int j = hi;
+        while (true) {
+            do {
+                i++;
+            } while (xs[a[i]] < px || (xs[a[i]] == px && ys[a[i]] < py));
+            do {
+                j--;
+            } while (xs[a[j]] > px || (xs[a[j]] == px && ys[a[j]] > py));
+            if (i >= j) {
+                return j + 1;
+            }
+            swap(a, i, j);
+        }
+    }
+
+    private static void insertionSort(double[] xs, double[] ys, int[] a, int lo, int hi) {
+        for (int i = lo + 1; i < hi; i++) {
+            int value = a[i];
+            int j = i - 1;
+            while (j >= lo && less(xs, ys, value, a[j])) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = value;
+        }
+    }
+
+    private static void heapSort(double[] xs, double[] ys, int[] a, int lo, int hi) {
+        int size = hi - lo;
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(xs, ys, a, lo, i, size);
+        }
+        for (int end = size - 1; end > 0; end--) {
+            swap(a, lo, lo + end);
+            siftDown(xs, ys, a, lo, 0, end);
+        }
+    }
+
+    private static void siftDown(double[] xs, double[] ys, int[] a, int lo, int node, int size) {
+        while (true) {
+            int child = 2 * node + 1;
+            if (child >= size) {
+                return;
+            }
+            if (child + 1 < size && less(xs, ys, a[lo + child], a[lo + child + 1])) {
+                child++;
+            }
+            if (!less(xs, ys, a[lo + node], a[lo + child])) {
+                return;
+            }
+            swap(a, lo + node, lo + child);
+            node = child;
+        }
+    }
+
+    private static boolean less(double[] xs, double[] ys, int i, int j) {
+        return xs[i] < xs[j] || (xs[i] == xs[j] && ys[i] < ys[j]);
+    }
+
+    private static void swap(int[] a, int i, int j) {
+        int tmp = a[i];
+        a[i] = a[j];
+        a[j] = tmp;
+    }
+}
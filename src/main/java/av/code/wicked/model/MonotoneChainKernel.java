@@ -0,0 +1,139 @@
+package av.code.wicked.model;
+
+/**
+ * Headless, allocation-free variant of {@link MonotoneChainHull} operating on parallel coordinate
+ * arrays. The kernel sorts an index permutation with {@link LexicographicSort} and builds the upper
+ * and lower chains directly in the caller's output array, so the only allocation is growing the
+ * reusable sort scratch when a larger input is seen.
+ * <p>
+ * When constructed with {@code cullInterior}, the contiguous-range entry points first drop points
+ * strictly inside the {@link AklToussaintFilter} octagon while filling the sort scratch.
+ * <p>
+ * Instances are not thread-safe; use one kernel per thread.
+ */
+public final class MonotoneChainKernel {
+
+    private final boolean cullInterior;
+    private int[] order = new int[0];
+    private final LexicographicSort sorter = new LexicographicSort();
+
+    public MonotoneChainKernel() {
+        this(false);
+    }
+
+    public MonotoneChainKernel(boolean cullInterior) {
+        this.cullInterior = cullInterior;
+    }
+
+    /**
+     * Computes the hull of all points in {@code xs}/{@code ys}.
+     *
+     * @see #computeHull(double[], double[], int, int[])
+     */
+    public int computeHull(double[] xs, double[] ys, int[] hullOut) {
+        return computeHull(xs, ys, xs.length, hullOut);
+    }
+
+    /**
+     * Computes the hull of the first {@code count} points and writes their indices to
+     * {@code hullOut}: the upper model from left to right followed by the trimmed lower model,
+     * exactly as {@link MonotoneChainHull} combines them. Collinear boundary points are kept.
+     *
+     * @param hullOut receives the hull indices; needs room for {@code 2 * count} entries because
+     *                fully collinear inputs appear on both chains
+     * @return the number of hull indices written
+     */
+    public int computeHull(double[] xs, double[] ys, int count, int[] hullOut) {
+        return computeHull(xs, ys, 0, count, hullOut);
+    }
+
+    /**
+     * Computes the hull of an arbitrary subset of points given by index, e.g. the survivors of a
+     * filter pass or the union of several sub-hulls. Same output contract as
+     * {@link #computeHull(double[], double[], int, int[])}, with {@code subsetCount} as the count.
+     */
+    public int computeHull(double[] xs, double[] ys, int[] subset, int subsetCount, int[] hullOut) {
+        checkOutput(hullOut, subsetCount);
+        int[] a = scratch(subsetCount);
+        System.arraycopy(subset, 0, a, 0, subsetCount);
+        return buildHull(xs, ys, a, subsetCount, hullOut);
+    }
+
+    /**
+     * Computes the hull of the contiguous index range {@code [from, to)}; indices written to
+     * {@code hullOut} are absolute.
+     */
+    int computeHull(double[] xs, double[] ys, int from, int to, int[] hullOut) {
+        if (from < 0 || to < from || to > xs.length || to > ys.length) {
+            throw new IllegalArgumentException("range out of bounds: [" + from + ", " + to + ")");
+        }
+        int count = to - from;
+        checkOutput(hullOut, count);
+        int[] a = scratch(count);
+        if (cullInterior) {
+            count = AklToussaintFilter.cull(xs, ys, from, to, a);
+        } else {
+            for (int i = 0; i < count; i++) {
+                a[i] = from + i;
+            }
+        }
+        return buildHull(xs, ys, a, count, hullOut);
+    }
+
+    private int buildHull(double[] xs, double[] ys, int[] sorted, int count, int[] hullOut) {
+        sorter.sort(xs, ys, sorted, count);
+        if (count <= 2) {
+            System.arraycopy(sorted, 0, hullOut, 0, count);
+            return count;
+        }
+
+        // Upper model: p1 ... pn, dropping middle points that do not make a right turn.
+        int k = 0;
+        for (int i = 0; i < count; i++) {
+            int p = sorted[i];
+            while (k >= 2 && !isRightTurn(xs, ys, hullOut[k - 2], hullOut[k - 1], p)) {
+                k--;
+            }
+            hullOut[k++] = p;
+        }
+
+        // Lower model: pn ... p1, reusing pn as the shared first point.
+        int lowerStart = k + 1;
+        for (int i = count - 2; i >= 0; i--) {
+            int p = sorted[i];
+            while (k >= lowerStart && !isRightTurn(xs, ys, hullOut[k - 2], hullOut[k - 1], p)) {
+                k--;
+            }
+            hullOut[k++] = p;
+        }
+
+        // The lower model ends with p1 again, which already opens the upper model.
+        return k - 1;
+    }
+
+    /**
+     * Whether the middle point {@code b} stays on the chain: {@code a, b, c} turn right or are
+     * collinear, and {@code b} does not coincide with a neighbour. Dropping coincident points keeps
+     * duplicates from pinning the chain and letting interior points through.
+     */
+    static boolean isRightTurn(double[] xs, double[] ys, int a, int b, int c) {
+        int turn = Orientation.sign(xs[a], ys[a], xs[b], ys[b], xs[c], ys[c]);
+        if (turn != 0) {
+            return turn < 0;
+        }
+        return !(xs[b] == xs[a] && ys[b] == ys[a]) && !(xs[b] == xs[c] && ys[b] == ys[c]);
+    }
+
+    private int[] scratch(int count) {
+        if (order.length < count) {
+            order = new int[count];
+        }
+        return order;
+    }
+
+    private static void checkOutput(int[] hullOut, int count) {
+        if (hullOut.length < 2 * count) {
+            throw new IllegalArgumentException("hullOut needs room for " + 2 * count + " indices");
+        }
+    }
+}
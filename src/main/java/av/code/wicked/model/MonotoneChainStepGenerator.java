@@ -0,0 +1,302 @@
+package av.code.wicked.model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import javafx.geometry.Point2D;
+
+/**
+ * Resumable form of {@link MonotoneChainHull#compute(List)}. Each refill runs one unit of the
+ * algorithm (the sort, or one loop iteration: an append plus its reductions) and buffers only the
+ * steps that unit produced, so memory stays bounded by the chains rather than the whole step log.
+ * Culling and sorting are deferred to the first {@link #next()} call.
+ * <p>
+ * {@link #record} runs the same algorithm over already sorted points in one go and encodes every
+ * step into a {@link StepLog} instead of buffering it, which is how {@link PreparedHullInput}
+ * computes its log. The chains hold indices into the sorted points either way.
+ * <p>
+ * With a {@link HullMetricsListener}, a pass times the solver work done in each refill and counts
+ * chain operations, reporting once it ends. Forks never report; they replay a pass already counted.
+ */
+final class MonotoneChainStepGenerator implements StepCursor {
+
+    private enum Phase { PREPARE, UPPER, LOWER, FINISH, DONE }
+
+    /** Iterations between interrupt checks while recording. */
+    private static final int INTERRUPT_CHECK_MASK = (1 << 16) - 1;
+
+    private final boolean cullInterior;
+    private final HullMetricsRecorder recorder;
+    private final StepLog.Writer writer;
+    private final Deque<HullStep> pending = new ArrayDeque<>();
+    private List<Point2D> points;
+    private int inputCount;
+    private int[] upper;
+    private int upperSize;
+    private int[] lower;
+    private int lowerSize;
+    private Phase phase = Phase.PREPARE;
+    private int index;
+
+    MonotoneChainStepGenerator(List<Point2D> points, boolean cullInterior, HullMetricsListener metricsListener) {
+        this.points = points;
+        this.cullInterior = cullInterior;
+        this.recorder = metricsListener != null ? new HullMetricsRecorder(metricsListener) : null;
+        this.writer = null;
+    }
+
+    private MonotoneChainStepGenerator(List<Point2D> sortedPoints, int inputCount, boolean cullInterior,
+                                       HullMetricsRecorder recorder, StepLog.Writer writer) {
+        this.points = sortedPoints;
+        this.inputCount = inputCount;
+        this.cullInterior = cullInterior;
+        this.recorder = recorder;
+        this.writer = writer;
+    }
+
+    private MonotoneChainStepGenerator(MonotoneChainStepGenerator source) {
+        // Before the first step the raw points are still culled and sorted in place, so copy them.
+        this.points = source.phase == Phase.PREPARE ? new ArrayList<>(source.points) : source.points;
+        this.inputCount = source.inputCount;
+        this.cullInterior = source.cullInterior;
+        this.recorder = null;
+        this.writer = null;
+        this.pending.addAll(source.pending);
+        this.upper = source.upper == null ? null : Arrays.copyOf(source.upper, source.upper.length);
+        this.upperSize = source.upperSize;
+        this.lower = source.lower == null ? null : Arrays.copyOf(source.lower, source.lower.length);
+        this.lowerSize = source.lowerSize;
+        this.phase = source.phase;
+        this.index = source.index;
+    }
+
+    /**
+     * Encodes every step for {@code sortedPoints}, the survivors of culling {@code inputCount}
+     * points, timing each chain phase into {@code recorder}. Interrupting the calling thread stops
+     * the scan with a {@link java.util.concurrent.CancellationException}.
+     */
+    static StepLog record(List<Point2D> sortedPoints, int inputCount, boolean cullInterior,
+                          HullMetricsRecorder recorder) {
+        StepLog.Writer writer = new StepLog.Writer(sortedPoints);
+        MonotoneChainStepGenerator generator =
+                new MonotoneChainStepGenerator(sortedPoints, inputCount, cullInterior, recorder, writer);
+        generator.begin();
+        long start = System.nanoTime();
+        while (generator.phase == Phase.UPPER) {
+            generator.scanUpper();
+            if ((generator.index & INTERRUPT_CHECK_MASK) == 0) {
+                PreparedHullInput.checkInterrupted();
+            }
+        }
+        long upperDone = System.nanoTime();
+        while (generator.phase == Phase.LOWER) {
+            generator.scanLower();
+            if ((generator.index & INTERRUPT_CHECK_MASK) == 0) {
+                PreparedHullInput.checkInterrupted();
+            }
+        }
+        long lowerDone = System.nanoTime();
+        if (generator.phase == Phase.FINISH) {
+            generator.finish();
+        }
+        recorder.upperNanos += upperDone - start;
+        recorder.lowerNanos += lowerDone - upperDone;
+        recorder.mergeNanos += System.nanoTime() - lowerDone;
+        return writer.finish();
+    }
+
+    @Override
+    public StepCursor fork() {
+        return new MonotoneChainStepGenerator(this);
+    }
+
+    @Override
+    public boolean hasNext() {
+        // Every phase before DONE emits at least one step.
+        return !pending.isEmpty() || phase != Phase.DONE;
+    }
+
+    @Override
+    public HullStep next() {
+        while (pending.isEmpty()) {
+            if (phase == Phase.DONE) {
+                throw new NoSuchElementException();
+            }
+            advance();
+        }
+        return pending.poll();
+    }
+
+    private void advance() {
+        if (recorder == null) {
+            runPhase();
+            return;
+        }
+        Phase timed = phase;
+        long start = System.nanoTime();
+        runPhase();
+        long elapsed = System.nanoTime() - start;
+        switch (timed) {
+            case UPPER -> recorder.upperNanos += elapsed;
+            case LOWER -> recorder.lowerNanos += elapsed;
+            case FINISH -> recorder.mergeNanos += elapsed;
+            default -> { }
+        }
+        if (phase == Phase.DONE) {
+            recorder.report(inputCount, inputCount - points.size());
+        }
+    }
+
+    private void runPhase() {
+        switch (phase) {
+            case PREPARE -> prepare();
+            case UPPER -> scanUpper();
+            case LOWER -> scanLower();
+            case FINISH -> finish();
+            case DONE -> { }
+        }
+    }
+
+    private void prepare() {
+        inputCount = points.size();
+        PreparedHullInput.cullAndSort(points, cullInterior, progress -> { }, recorder);
+        begin();
+    }
+
+    /**
+     * Emits the steps before the chain scans, for points that are already culled and sorted.
+     */
+    private void begin() {
+        int n = points.size();
+        upper = new int[Math.max(n, 2)];
+        lower = new int[Math.max(n, 2)];
+        if (cullInterior) {
+            // Pre-pass: discard points strictly inside the Akl–Toussaint octagon.
+            emit(0, HullAction.FILTERED, -1,
+                    "Culled " + (inputCount - n) + " of " + inputCount + " points inside the extreme-point octagon", -1);
+        }
+
+        // Step 1: Sort the points by x-coordinate, resulting in a sequence p1, ..., pn.
+        emit(1, HullAction.SORTED, -1, "Points sorted by x then y", n - 1);
+
+        if (n <= 2) {
+            emit(14, HullAction.FINALIZED, -1, "Trivial model", n - 1);
+            phase = Phase.DONE;
+            return;
+        }
+
+        // Step 2: Put the points p1 and p2 in a list L_upper, with p1 as the first point.
+        upper[upperSize++] = 0;
+        append(2, HullAction.UPPER_APPEND, 0, "Initialize upper model");
+        upper[upperSize++] = 1;
+        append(2, HullAction.UPPER_APPEND, 1, "Initialize upper model");
+        index = 2;
+        phase = Phase.UPPER;
+    }
+
+    private void scanUpper() {
+        // Step 3-6: For i = 3 to n...
+        int pi = index;
+        // Step 4: Append pi to L_upper.
+        upper[upperSize++] = pi;
+        append(4, HullAction.UPPER_APPEND, pi, "Append point to upper model");
+        // Step 5-6: While L_upper contains more than two points and the last three points do not make right turn
+        while (upperSize > 2 && !isRightTurn(upper, upperSize)) {
+            int removed = upper[upperSize - 2];
+            upper[upperSize - 2] = upper[--upperSize];
+            reduce(6, HullAction.UPPER_REDUCTION, removed, pi, "Remove middle point from upper model");
+        }
+        if (++index < points.size()) {
+            return;
+        }
+
+        // Step 7: Put the points pn and p(n-1) in a list L_lower, with pn as the first point.
+        int n = points.size();
+        lower[lowerSize++] = n - 1;
+        append(7, HullAction.LOWER_APPEND, n - 1, "Initialize lower model");
+        lower[lowerSize++] = n - 2;
+        append(7, HullAction.LOWER_APPEND, n - 2, "Initialize lower model");
+        index = n - 3;
+        phase = index >= 0 ? Phase.LOWER : Phase.FINISH;
+    }
+
+    private void scanLower() {
+        // Step 8-11: For i = n-2 down to 1...
+        int pi = index;
+        // Step 9: Append pi to L_lower.
+        lower[lowerSize++] = pi;
+        append(9, HullAction.LOWER_APPEND, pi, "Append point to lower model");
+        // Step 10-11: While not right turn remove middle.
+        while (lowerSize > 2 && !isRightTurn(lower, lowerSize)) {
+            int removed = lower[lowerSize - 2];
+            lower[lowerSize - 2] = lower[--lowerSize];
+            reduce(11, HullAction.LOWER_REDUCTION, removed, pi, "Remove middle point from lower model");
+        }
+        if (--index < 0) {
+            phase = Phase.FINISH;
+        }
+    }
+
+    private void finish() {
+        // Step 12: Remove duplicates from L_lower ends. The chains are not read after this, so
+        // only the end that names the last hull point matters.
+        int lowerEnd = lowerSize - 2;
+        emit(12, HullAction.LOWER_TRIM, -1, "Trim lower model endpoints", -1);
+
+        // Step 13: Append L_lower to L_upper and call the resulting list L.
+        int hullEnd = lowerEnd >= 1 ? lower[lowerEnd] : upper[upperSize - 1];
+        emit(13, HullAction.FINALIZED, -1, "Combine upper and lower model", hullEnd);
+
+        // Step 14: Return L.
+        emit(14, HullAction.FINALIZED, -1, "Convex model ready", hullEnd);
+        phase = Phase.DONE;
+    }
+
+    private void append(int number, HullAction action, int point, String description) {
+        if (recorder != null) {
+            recorder.pushes++;
+        }
+        emit(number, action, point, description, point);
+    }
+
+    private void reduce(int number, HullAction action, int removed, int focus, String description) {
+        if (recorder != null) {
+            recorder.pops++;
+        }
+        emit(number, action, removed, description, focus);
+    }
+
+    private void emit(int number, HullAction action, int point, String description, int focus) {
+        if (writer != null) {
+            writer.add(number, action, point, description, focus);
+        } else {
+            pending.add(new HullStep(number, action, pointAt(point), description, pointAt(focus)));
+        }
+    }
+
+    private Point2D pointAt(int index) {
+        return index < 0 ? null : points.get(index);
+    }
+
+    /**
+     * Same rule as {@link MonotoneChainKernel#isRightTurn}: exact orientation, with collinear
+     * points kept unless the middle point duplicates a neighbour.
+     */
+    private boolean isRightTurn(int[] chain, int size) {
+        if (recorder != null) {
+            recorder.orientationTests++;
+        }
+        Point2D a = points.get(chain[size - 3]);
+        Point2D b = points.get(chain[size - 2]);
+        Point2D c = points.get(chain[size - 1]);
+        int turn = Orientation.sign(a, b, c);
+        if (turn != 0) {
+            return turn < 0;
+        }
+        return !b.equals(a) && !b.equals(c);
+    }
+}
@@ -0,0 +1,70 @@
+package av.code.wicked.model;
+
+import java.math.BigDecimal;
+
+import javafx.geometry.Point2D;
+
+/**
+ * Robust orientation predicate for three points. The determinant is first evaluated in plain
+ * doubles together with Shewchuk's forward error bound; only when its magnitude does not exceed
+ * that bound, i.e. the sign is uncertain, is it recomputed exactly with {@link BigDecimal}. Nearly
+ * all calls take the fast path, and the returned sign is always the sign of the exact determinant.
+ * <p>
+ * Coordinates must be finite.
+ */
+public final class Orientation {
+
+    /** Relative error bound of the double determinant, (3 + 16ε)ε with ε = 2^-53. */
+    private static final double ERROR_BOUND = (3.0 + 16.0 * 0x1p-53) * 0x1p-53;
+
+    private Orientation() {
+    }
+
+    /**
+     * Returns {@code 1} if {@code a, b, c} make a left (counter-clockwise) turn, {@code -1} for a
+     * right turn and {@code 0} if the points are exactly collinear.
+     */
+    public static int sign(double ax, double ay, double bx, double by, double cx, double cy) {
+        double detLeft = (ax - cx) * (by - cy);
+        double detRight = (ay - cy) * (bx - cx);
+        double det = detLeft - detRight;
+        double detSum;
+        if (detLeft > 0) {
+            if (detRight <= 0) {
+                return signum(det);
+            }
+            detSum = detLeft + detRight;
+        } else if (detLeft < 0) {
+            if (detRight >= 0) {
+                return signum(det);
+            }
+            detSum = -detLeft - detRight;
+        } else if (detLeft == 0) {
+            return signum(det);
+        } else {
+            // Overflow produced NaN.
+            return exactSign(ax, ay, bx, by, cx, cy);
+        }
+        double bound = ERROR_BOUND * detSum;
+        if ((det >= bound || -det >= bound) && bound < Double.POSITIVE_INFINITY) {
+            return signum(det);
+        }
+        return exactSign(ax, ay, bx, by, cx, cy);
+    }
+
+    public static int sign(Point2D a, Point2D b, Point2D c) {
+        return sign(a.getX(), a.getY(), b.getX(), b.getY(), c.getX(), c.getY());
+    }
+
+    static int exactSign(double ax, double ay, double bx, double by, double cx, double cy) {
+        BigDecimal acx = new BigDecimal(ax).subtract(new BigDecimal(cx));
+        BigDecimal bcy = new BigDecimal(by).subtract(new BigDecimal(cy));
+        BigDecimal acy = new BigDecimal(ay).subtract(new BigDecimal(cy));
+        BigDecimal bcx = new BigDecimal(bx).subtract(new BigDecimal(cx));
+        return acx.multiply(bcy).subtract(acy.multiply(bcx)).signum();
+    }
+
+    private static int signum(double value) {
+        return value > 0 ? 1 : value < 0 ? -1 : 0;
+    }
+}
@@ -0,0 +1,326 @@
+package av.code.wicked.model;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.function.DoubleConsumer;
+
+import javafx.geometry.Point2D;
+
+/**
+ * Shared back end of the output-sensitive engines. An engine only finds <em>candidates</em>: a
+ * subset of the input that contains every strictly convex hull vertex and is usually not much
+ * larger than the hull. This class turns them into exactly the hull {@link MonotoneChainHull}
+ * reports, in O(n log h) for h candidates:
+ * <ol>
+ * <li>a strict chain scan over the sorted candidates fixes the convex vertices, with the same
+ * exact {@link Orientation} predicate the monotone chain uses;</li>
+ * <li>one pass per chain over all points adds collinear boundary points, finding the edge below
+ * or above each point by binary search;</li>
+ * <li>each chain is sorted and coincident points are kept once.</li>
+ * </ol>
+ * The only difference from the monotone chain is that a duplicate of the rightmost point is not
+ * repeated at the end of the upper model.
+ * <p>
+ * Since the hull is known before the first step, steps walk the finished chains:
+ * <ul>
+ * <li>1 {@code FILTERED}: how many candidates the engine kept;</li>
+ * <li>2 {@code UPPER_APPEND}: each upper model point, from left to right;</li>
+ * <li>3 {@code LOWER_APPEND}: each lower model point, from right to left;</li>
+ * <li>4 {@code LOWER_TRIM}, then 5 and 6 {@code FINALIZED}, as in the monotone chain.</li>
+ * </ul>
+ * Inputs with fewer than three points, or whose points all coincide, are delegated to
+ * {@link MonotoneChainHull}.
+ * Metrics are reported once per computation rather than per pass: the candidate search counts as
+ * the cull phase, sorting the candidates as the sort phase, and each chain's scan and completion
+ * as its upper or lower phase.
+ */
+abstract class OutputSensitiveHull implements HullSolver {
+
+    private volatile HullMetricsListener metricsListener;
+
+    /**
+     * Writes candidate indices for the hull of all points to {@code candidatesOut}, which has room
+     * for one entry per point, and returns their number. Must include an index for every strictly
+     * convex vertex; duplicates and interior points are tolerated. Engines add the orientation
+     * tests they run to {@code recorder}.
+     */
+    abstract int findCandidates(double[] xs, double[] ys, int[] candidatesOut, HullMetricsRecorder recorder);
+
+    @Override
+    public void setMetricsListener(HullMetricsListener metricsListener) {
+        this.metricsListener = metricsListener;
+    }
+
+    @Override
+    public StepCursor steps(List<Point2D> points) {
+        return prepare(points, fraction -> { }).steps();
+    }
+
+    @Override
+    public PreparedHull prepare(List<Point2D> points, DoubleConsumer progress) {
+        Point2D[] input = points.toArray(new Point2D[0]);
+        progress.accept(0);
+        int count = input.length;
+        double[] xs = new double[count];
+        double[] ys = new double[count];
+        for (int i = 0; i < count; i++) {
+            xs[i] = input[i].getX();
+            ys[i] = input[i].getY();
+        }
+        HullMetricsListener listener = metricsListener;
+        HullMetricsRecorder recorder = new HullMetricsRecorder(listener);
+        Chains chains = solve(xs, ys, recorder);
+        if (chains == null) {
+            MonotoneChainHull fallback = new MonotoneChainHull();
+            fallback.setMetricsListener(listener);
+            return fallback.prepare(Arrays.asList(input), progress);
+        }
+        progress.accept(1);
+        HullMetrics metrics = recorder.report(count, count - chains.candidateCount());
+        return new Prepared(name(), select(input, chains.upper()), select(input, chains.lower()),
+                count, chains.candidateCount(), metrics);
+    }
+
+    @Override
+    public int computeHull(double[] xs, double[] ys, int[] hullOut) {
+        if (xs.length != ys.length) {
+            throw new IllegalArgumentException("xs and ys differ in length: " + xs.length + " vs " + ys.length);
+        }
+        if (hullOut.length < 2 * xs.length) {
+            throw new IllegalArgumentException("hullOut needs room for " + 2 * xs.length + " indices");
+        }
+        HullMetricsListener listener = metricsListener;
+        HullMetricsRecorder recorder = new HullMetricsRecorder(listener);
+        Chains chains = solve(xs, ys, recorder);
+        if (chains == null) {
+            return new MonotoneChainKernel().computeHull(xs, ys, hullOut);
+        }
+        recorder.report(xs.length, xs.length - chains.candidateCount());
+        int[] upper = chains.upper();
+        int[] lower = chains.lower();
+        System.arraycopy(upper, 0, hullOut, 0, upper.length);
+        int trimmed = Math.max(0, lower.length - 2);
+        System.arraycopy(lower, 1, hullOut, upper.length, trimmed);
+        return upper.length + trimmed;
+    }
+
+    /**
+     * @param upper upper model indices from the leftmost to the rightmost point
+     * @param lower lower model indices from the rightmost back to the leftmost point, untrimmed
+     */
+    record Chains(int[] upper, int[] lower, int candidateCount) {
+    }
+
+    /**
+     * Runs the engine and rebuilds the monotone chains, or returns {@code null} when the input has
+     * fewer than three points or all of them coincide.
+     */
+    final Chains solve(double[] xs, double[] ys, HullMetricsRecorder recorder) {
+        int count = xs.length;
+        if (count < 3) {
+            return null;
+        }
+        long start = System.nanoTime();
+        int[] candidates = new int[count];
+        int candidateCount = findCandidates(xs, ys, candidates, recorder);
+        checkInterrupted();
+        long found = System.nanoTime();
+        LexicographicSort sorter = new LexicographicSort();
+        sorter.sort(xs, ys, candidates, candidateCount);
+        long sorted = System.nanoTime();
+        int[] upper = strictChain(xs, ys, candidates, candidateCount, true, recorder);
+        if (upper.length < 2) {
+            return null;
+        }
+        upper = completeChain(xs, ys, upper, sorter, recorder);
+        long upperDone = System.nanoTime();
+        checkInterrupted();
+        int[] lower = strictChain(xs, ys, candidates, candidateCount, false, recorder);
+        lower = completeChain(xs, ys, lower, sorter, recorder);
+        reverse(lower);
+        long lowerDone = System.nanoTime();
+        checkInterrupted();
+        recorder.cullNanos = found - start;
+        recorder.sortNanos = sorted - found;
+        recorder.upperNanos = upperDone - sorted;
+        recorder.lowerNanos = lowerDone - upperDone;
+        recorder.pushes = upper.length + lower.length;
+        return new Chains(upper, lower, candidateCount);
+    }
+
+    /**
+     * Strictly convex chain over sorted indices, from left to right: the upper chain keeps right
+     * turns, the lower chain left turns. Coincident points are kept once, as a later point replaces
+     * an equal predecessor.
+     */
+    private static int[] strictChain(double[] xs, double[] ys, int[] sorted, int count, boolean upper,
+                                     HullMetricsRecorder recorder) {
+        int[] chain = new int[count];
+        int size = 0;
+        long tests = 0;
+        int keep = upper ? -1 : 1;
+        for (int i = 0; i < count; i++) {
+            int p = sorted[i];
+            while (size >= 2) {
+                int a = chain[size - 2];
+                int b = chain[size - 1];
+                tests++;
+                if (Orientation.sign(xs[a], ys[a], xs[b], ys[b], xs[p], ys[p]) == keep) {
+                    break;
+                }
+                size--;
+            }
+            if (size == 1 && same(xs, ys, chain[0], p)) {
+                continue;
+            }
+            chain[size++] = p;
+        }
+        recorder.orientationTests += tests;
+        return Arrays.copyOf(chain, size);
+    }
+
+    /**
+     * Adds every point lying on an edge of the strict chain, which is ordered from left to right,
+     * and returns the full chain in that order with coincident points kept once.
+     */
+    private static int[] completeChain(double[] xs, double[] ys, int[] strict, LexicographicSort sorter,
+                                       HullMetricsRecorder recorder) {
+        int edges = strict.length - 1;
+        int[] full = Arrays.copyOf(strict, Math.max(16, 2 * strict.length));
+        int size = strict.length;
+        long tests = 0;
+        for (int p = 0; p < xs.length; p++) {
+            // First chain point not lexicographically smaller than p; every point lies within [p1, pn].
+            int lo = 0;
+            int hi = edges;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (less(xs, ys, strict[mid], p)) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            if (lo == 0 || same(xs, ys, strict[lo], p)) {
+                continue;
+            }
+            int a = strict[lo - 1];
+            int b = strict[lo];
+            tests++;
+            if (Orientation.sign(xs[a], ys[a], xs[p], ys[p], xs[b], ys[b]) == 0) {
+                if (size == full.length) {
+                    full = Arrays.copyOf(full, 2 * size);
+                }
+                full[size++] = p;
+            }
+            if ((p & 0xFFFF) == 0xFFFF) {
+                checkInterrupted();
+            }
+        }
+        recorder.orientationTests += tests;
+        if (size == strict.length) {
+            return strict;
+        }
+        sorter.sort(xs, ys, full, size);
+        int kept = 1;
+        for (int i = 1; i < size; i++) {
+            if (!same(xs, ys, full[kept - 1], full[i])) {
+                full[kept++] = full[i];
+            }
+        }
+        return Arrays.copyOf(full, kept);
+    }
+
+    static boolean less(double[] xs, double[] ys, int i, int j) {
+        return xs[i] < xs[j] || (xs[i] == xs[j] && ys[i] < ys[j]);
+    }
+
+    static boolean same(double[] xs, double[] ys, int i, int j) {
+        return xs[i] == xs[j] && ys[i] == ys[j];
+    }
+
+    static void checkInterrupted() {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("hull computation interrupted");
+        }
+    }
+
+    private static void reverse(int[] a) {
+        for (int i = 0, j = a.length - 1; i < j; i++, j--) {
+            int tmp = a[i];
+            a[i] = a[j];
+            a[j] = tmp;
+        }
+    }
+
+    private static Point2D[] select(Point2D[] points, int[] indices) {
+        Point2D[] selected = new Point2D[indices.length];
+        for (int i = 0; i < indices.length; i++) {
+            selected[i] = points[indices[i]];
+        }
+        return selected;
+    }
+
+    /**
+     * Finished chains of one input, with their steps encoded once; every pass replays the log.
+     */
+    private static final class Prepared implements PreparedHull {
+
+        private final int hullPoints;
+        private final int inputCount;
+        private final int candidateCount;
+        private final StepLog stepLog;
+        private final HullMetrics metrics;
+
+        Prepared(String solverName, Point2D[] upper, Point2D[] lower, int inputCount, int candidateCount,
+                 HullMetrics metrics) {
+            this.metrics = metrics;
+            this.hullPoints = upper.length + lower.length;
+            this.inputCount = inputCount;
+            this.candidateCount = candidateCount;
+            // The log refers to the upper points, then the lower ones.
+            Point2D[] chainPoints = Arrays.copyOf(upper, hullPoints);
+            System.arraycopy(lower, 0, chainPoints, upper.length, lower.length);
+            StepLog.Writer writer = new StepLog.Writer(Arrays.asList(chainPoints));
+            writer.add(1, HullAction.FILTERED, -1, solverName + " kept " + candidateCount + " of "
+                    + inputCount + " points as vertex candidates", -1);
+            for (int i = 0; i < upper.length; i++) {
+                writer.add(2, HullAction.UPPER_APPEND, i, "Append hull point to upper model", i);
+            }
+            for (int i = upper.length; i < hullPoints; i++) {
+                writer.add(3, HullAction.LOWER_APPEND, i, "Append hull point to lower model", i);
+            }
+            int hullEnd = lower.length <= 2 ? upper.length - 1 : hullPoints - 2;
+            writer.add(4, HullAction.LOWER_TRIM, -1, "Trim lower model endpoints", -1);
+            writer.add(5, HullAction.FINALIZED, -1, "Combine upper and lower model", hullEnd);
+            writer.add(6, HullAction.FINALIZED, -1, "Convex model ready", hullEnd);
+            this.stepLog = writer.finish();
+        }
+
+        @Override
+        public StepLog stepLog() {
+            return stepLog;
+        }
+
+        @Override
+        public HullMetrics metrics() {
+            return metrics;
+        }
+
+        @Override
+        public int inputCount() {
+            return inputCount;
+        }
+
+        @Override
+        public int culledCount() {
+            return inputCount - candidateCount;
+        }
+
+        @Override
+        public long estimatedBytes() {
+            return 64 + 40L * hullPoints + stepLog.estimatedBytes();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package av.code.wicked.model;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Fork-join front end for {@link MonotoneChainKernel}. The input is split into contiguous index
+ * ranges, each leaf computes its sub-hull with a per-worker kernel, and sibling sub-hulls are
+ * merged by running the monotone chain again over their union. Every point on the final hull lies
+ * on the hull of its own leaf, so the result matches the sequential solver.
+ */
+public final class ParallelMonotoneChainHull {
+
+    private static final int DEFAULT_LEAF_SIZE = 1 << 16;
+
+    private static final ThreadLocal<Workspace> WORKSPACES = ThreadLocal.withInitial(Workspace::new);
+
+    private final ForkJoinPool pool;
+    private final int leafSize;
+
+    public ParallelMonotoneChainHull() {
+        this(ForkJoinPool.commonPool(), DEFAULT_LEAF_SIZE);
+    }
+
+    public ParallelMonotoneChainHull(ForkJoinPool pool, int leafSize) {
+        this.pool = Objects.requireNonNull(pool, "pool");
+        if (leafSize < 3) {
+            throw new IllegalArgumentException("leafSize must be at least 3: " + leafSize);
+        }
+        this.leafSize = leafSize;
+    }
+
+    /**
+     * Parallel counterpart of {@link MonotoneChainHull#computeHull(double[], double[], int[])}
+     * with the same output order and capacity contract.
+     *
+     * @return the number of hull indices written
+     */
+    public int computeHull(double[] xs, double[] ys, int[] hullOut) {
+        int count = xs.length;
+        if (ys.length != count) {
+            throw new IllegalArgumentException("xs and ys differ in length: " + count + " vs " + ys.length);
+        }
+        if (hullOut.length < 2 * count) {
+            throw new IllegalArgumentException("hullOut needs room for " + 2 * count + " indices");
+        }
+        if (count <= leafSize) {
+            return WORKSPACES.get().kernel.computeHull(xs, ys, hullOut);
+        }
+        int[] hull = pool.invoke(new HullTask(xs, ys, 0, count));
+        System.arraycopy(hull, 0, hullOut, 0, hull.length);
+        return hull.length;
+    }
+
+    private final class HullTask extends RecursiveTask<int[]> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final double[] xs;
+        private final double[] ys;
+        private final int from;
+        private final int to;
+
+        private HullTask(double[] xs, double[] ys, int from, int to) {
+            this.xs = xs;
+            this.ys = ys;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (to - from <= leafSize) {
+                Workspace workspace = WORKSPACES.get();
+                int[] buffer = workspace.buffer(2 * (to - from));
+                int size = workspace.kernel.computeHull(xs, ys, from, to, buffer);
+                return Arrays.copyOf(buffer, size);
+            }
+            int mid = (from + to) >>> 1;
+            HullTask left = new HullTask(xs, ys, from, mid);
+            left.fork();
+            int[] right = new HullTask(xs, ys, mid, to).compute();
+            return merge(left.join(), right);
+        }
+
+        private int[] merge(int[] left, int[] right) {
+            int[] union = Arrays.copyOf(left, left.length + right.length);
+            System.arraycopy(right, 0, union, left.length, right.length);
+            // Collinear boundary points can sit on both chains of a sub-hull; keep each index once.
+            Arrays.sort(union);
+            int distinct = 0;
+            for (int i = 0; i < union.length; i++) {
+                if (i == 0 || union[i] != union[i - 1]) {
+                    union[distinct++] = union[i];
+                }
+            }
+            Workspace workspace = WORKSPACES.get();
+            int[] buffer = workspace.buffer(2 * distinct);
+            int size = workspace.kernel.computeHull(xs, ys, union, distinct, buffer);
+            return Arrays.copyOf(buffer, size);
+        }
+    }
+
+    /**
+     * Per-worker kernel and output buffer, reused across leaves and merges on the same thread.
+     */
+    private static final class Workspace {
+
+        private final MonotoneChainKernel kernel = new MonotoneChainKernel();
+        private int[] buffer = new int[0];
+
+        private int[] buffer(int size) {
+            if (buffer.length < size) {
+                buffer = new int[size];
+            }
+            return buffer;
+        }
+    }
+}
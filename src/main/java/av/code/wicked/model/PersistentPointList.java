@@ -0,0 +1,255 @@
+package av.code.wicked.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import javafx.geometry.Point2D;
+
+/**
+ * Immutable list of points in which every edit returns a new version that shares all untouched
+ * structure with the old one. The points sit in an AVL tree ordered by position, and each node
+ * counts the points below it; an edit copies the O(log n) nodes on its path and leaves the rest
+ * to both versions. {@link PointSetHistory} relies on this to keep every earlier version of a
+ * large point set for the price of a few dozen nodes per edit, and {@link DynamicConvexHull} to
+ * cut and join hull chains in O(log n) without copying them.
+ */
+public final class PersistentPointList {
+
+    private static final PersistentPointList EMPTY = new PersistentPointList(null);
+
+    private final Node root;
+
+    private PersistentPointList(Node root) {
+        this.root = root;
+    }
+
+    public static PersistentPointList empty() {
+        return EMPTY;
+    }
+
+    /**
+     * List holding {@code points} in order, built as a balanced tree in linear time.
+     */
+    public static PersistentPointList of(List<Point2D> points) {
+        Point2D[] array = points.toArray(new Point2D[0]);
+        for (Point2D point : array) {
+            Objects.requireNonNull(point, "point");
+        }
+        return array.length == 0 ? EMPTY : new PersistentPointList(build(array, 0, array.length));
+    }
+
+    public int size() {
+        return size(root);
+    }
+
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    public Point2D get(int index) {
+        Objects.checkIndex(index, size());
+        Node node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index > leftSize) {
+                index -= leftSize + 1;
+                node = node.right;
+            } else {
+                return node.point;
+            }
+        }
+    }
+
+    public PersistentPointList append(Point2D point) {
+        return insert(size(), point);
+    }
+
+    public PersistentPointList appendAll(List<Point2D> points) {
+        Node appended = root;
+        for (Point2D point : points) {
+            appended = insert(appended, size(appended), Objects.requireNonNull(point, "point"));
+        }
+        return appended == root ? this : new PersistentPointList(appended);
+    }
+
+    /**
+     * Inserts {@code point} before the point at {@code index}, or at the end for {@link #size()}.
+     */
+    public PersistentPointList insert(int index, Point2D point) {
+        Objects.checkIndex(index, size() + 1);
+        return new PersistentPointList(insert(root, index, Objects.requireNonNull(point, "point")));
+    }
+
+    public PersistentPointList remove(int index) {
+        Objects.checkIndex(index, size());
+        Node removed = remove(root, index);
+        return removed == null ? EMPTY : new PersistentPointList(removed);
+    }
+
+    /**
+     * Points {@code [from, to)} as a list sharing all but O(log n) nodes with this one.
+     */
+    PersistentPointList subList(int from, int to) {
+        Objects.checkFromToIndex(from, to, size());
+        if (from == 0 && to == size()) {
+            return this;
+        }
+        Node[] tail = split(root, from);
+        Node[] middle = split(tail[1], to - from);
+        return middle[0] == null ? EMPTY : new PersistentPointList(middle[0]);
+    }
+
+    /**
+     * This list followed by {@code other}, in O(log n).
+     */
+    PersistentPointList concat(PersistentPointList other) {
+        if (other.root == null) {
+            return this;
+        }
+        if (root == null) {
+            return other;
+        }
+        Node last = root;
+        while (last.right != null) {
+            last = last.right;
+        }
+        return new PersistentPointList(join(remove(root, root.size - 1), last.point, other.root));
+    }
+
+    /**
+     * The points in order, as a new mutable list.
+     */
+    public List<Point2D> toList() {
+        List<Point2D> points = new ArrayList<>(size());
+        collect(root, points);
+        return points;
+    }
+
+    private static final class Node {
+
+        private final Point2D point;
+        private final Node left;
+        private final Node right;
+        private final int size;
+        private final int height;
+
+        Node(Point2D point, Node left, Node right) {
+            this.point = point;
+            this.left = left;
+            this.right = right;
+            this.size = size(left) + 1 + size(right);
+            this.height = Math.max(height(left), height(right)) + 1;
+        }
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static Node build(Point2D[] points, int from, int to) {
+        if (from == to) {
+            return null;
+        }
+        int mid = (from + to) >>> 1;
+        return new Node(points[mid], build(points, from, mid), build(points, mid + 1, to));
+    }
+
+    private static void collect(Node node, List<Point2D> out) {
+        // Recursion depth is the tree height, about 1.44 log2(n).
+        if (node != null) {
+            collect(node.left, out);
+            out.add(node.point);
+            collect(node.right, out);
+        }
+    }
+
+    private static Node insert(Node node, int index, Point2D point) {
+        if (node == null) {
+            return new Node(point, null, null);
+        }
+        int leftSize = size(node.left);
+        if (index <= leftSize) {
+            return balance(node.point, insert(node.left, index, point), node.right);
+        }
+        return balance(node.point, node.left, insert(node.right, index - leftSize - 1, point));
+    }
+
+    private static Node remove(Node node, int index) {
+        int leftSize = size(node.left);
+        if (index < leftSize) {
+            return balance(node.point, remove(node.left, index), node.right);
+        }
+        if (index > leftSize) {
+            return balance(node.point, node.left, remove(node.right, index - leftSize - 1));
+        }
+        if (node.left == null) {
+            return node.right;
+        }
+        if (node.right == null) {
+            return node.left;
+        }
+        Node successor = node.right;
+        while (successor.left != null) {
+            successor = successor.left;
+        }
+        return balance(successor.point, node.left, remove(node.right, 0));
+    }
+
+    /**
+     * Tree of {@code left}, then {@code point}, then {@code right}, for subtrees of any heights.
+     */
+    private static Node join(Node left, Point2D point, Node right) {
+        if (height(left) > height(right) + 1) {
+            return balance(left.point, left.left, join(left.right, point, right));
+        }
+        if (height(right) > height(left) + 1) {
+            return balance(right.point, join(left, point, right.left), right.right);
+        }
+        return new Node(point, left, right);
+    }
+
+    /**
+     * The first {@code index} points and the rest, as two trees.
+     */
+    private static Node[] split(Node node, int index) {
+        if (node == null) {
+            return new Node[2];
+        }
+        int leftSize = size(node.left);
+        if (index <= leftSize) {
+            Node[] parts = split(node.left, index);
+            return new Node[] {parts[0], join(parts[1], node.point, node.right)};
+        }
+        Node[] parts = split(node.right, index - leftSize - 1);
+        return new Node[] {join(node.left, node.point, parts[0]), parts[1]};
+    }
+
+    /**
+     * New node for {@code point} over subtrees whose heights differ by at most two, rotated back
+     * into AVL balance.
+     */
+    private static Node balance(Point2D point, Node left, Node right) {
+        if (height(left) > height(right) + 1) {
+            if (height(left.left) >= height(left.right)) {
+                return new Node(left.point, left.left, new Node(point, left.right, right));
+            }
+            Node pivot = left.right;
+            return new Node(pivot.point, new Node(left.point, left.left, pivot.left), new Node(point, pivot.right, right));
+        }
+        if (height(right) > height(left) + 1) {
+            if (height(right.right) >= height(right.left)) {
+                return new Node(right.point, new Node(point, left, right.left), right.right);
+            }
+            Node pivot = right.left;
+            return new Node(pivot.point, new Node(point, left, pivot.left), new Node(right.point, pivot.right, right.right));
+        }
+        return new Node(point, left, right);
+    }
+}
@@ -0,0 +1,28 @@
+package av.code.wicked.model;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event for one animation pulse of {@link HullAnimationController} that applied steps.
+ */
+@Name("av.code.wicked.PlaybackPulse")
+@Label("Playback Pulse")
+@Category({"Convex Hull", "Animation"})
+@Description("Steps applied during one animation frame")
+final class PlaybackPulseEvent extends Event {
+
+    @Label("Steps Applied")
+    int stepsApplied;
+
+    @Label("Position")
+    @Description("Index of the last applied step")
+    int position;
+
+    @Label("Backlog Dropped")
+    @Description("Whether the frame budget ran out before all due steps were applied")
+    boolean backlogDropped;
+}
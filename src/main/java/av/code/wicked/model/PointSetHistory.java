@@ -0,0 +1,109 @@
+package av.code.wicked.model;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+
+import javafx.geometry.Point2D;
+
+/**
+ * Undo and redo of point set edits. Every version of the set is a {@link PersistentPointList}, so
+ * an edit of one point keeps both versions for O(log n) extra memory and a clear keeps the old
+ * version as it was, without copying either. Each {@link Edit} also says what changed, so a view
+ * can apply it, or its inverse, point by point instead of reloading the whole set.
+ * <p>
+ * At most {@code limit} edits are kept; older ones are forgotten. Instances are not thread-safe.
+ */
+public final class PointSetHistory {
+
+    /**
+     * How {@link Edit#after()} follows from {@link Edit#before()}.
+     */
+    public enum Kind {
+        /** Points appended at the end. */
+        APPEND,
+        /** One point removed at {@link Edit#index()}. */
+        REMOVE,
+        /** Every point replaced, e.g. by clearing or loading. */
+        REPLACE
+    }
+
+    public record Edit(Kind kind, String label, PersistentPointList before, PersistentPointList after, int index) {}
+
+    private final int limit;
+    private final Deque<Edit> undoable = new ArrayDeque<>();
+    private final Deque<Edit> redoable = new ArrayDeque<>();
+    private PersistentPointList current = PersistentPointList.empty();
+
+    public PointSetHistory(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be positive: " + limit);
+        }
+        this.limit = limit;
+    }
+
+    /**
+     * The points after the last edit, undo or redo.
+     */
+    public PersistentPointList current() {
+        return current;
+    }
+
+    public Edit append(String label, List<Point2D> points) {
+        return record(new Edit(Kind.APPEND, label, current, current.appendAll(points), current.size()));
+    }
+
+    public Edit remove(String label, int index) {
+        return record(new Edit(Kind.REMOVE, label, current, current.remove(index), index));
+    }
+
+    public Edit replace(String label, List<Point2D> points) {
+        return record(new Edit(Kind.REPLACE, label, current, PersistentPointList.of(points), 0));
+    }
+
+    public boolean canUndo() {
+        return !undoable.isEmpty();
+    }
+
+    public boolean canRedo() {
+        return !redoable.isEmpty();
+    }
+
+    /**
+     * Steps back to before the last edit, which is returned; its inverse is what changed.
+     */
+    public Edit undo() {
+        if (undoable.isEmpty()) {
+            throw new IllegalStateException("nothing to undo");
+        }
+        Edit edit = undoable.pop();
+        redoable.push(edit);
+        current = edit.before();
+        return edit;
+    }
+
+    /**
+     * Reapplies the last undone edit and returns it.
+     */
+    public Edit redo() {
+        if (redoable.isEmpty()) {
+            throw new IllegalStateException("nothing to redo");
+        }
+        Edit edit = redoable.pop();
+        undoable.push(edit);
+        current = edit.after();
+        return edit;
+    }
+
+    private Edit record(Edit edit) {
+        Objects.requireNonNull(edit.label(), "label");
+        undoable.push(edit);
+        if (undoable.size() > limit) {
+            undoable.removeLast();
+        }
+        redoable.clear();
+        current = edit.after();
+        return edit;
+    }
+}
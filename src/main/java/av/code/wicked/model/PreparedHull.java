@@ -0,0 +1,43 @@
+package av.code.wicked.model;
+
+/**
+ * Result of {@link HullSolver#prepare}: immutable, and replayable any number of times through
+ * {@link #steps()}.
+ */
+public interface PreparedHull {
+
+    /**
+     * Every step of the solver for this input, recorded while it was prepared.
+     */
+    StepLog stepLog();
+
+    /**
+     * Starts a new pass over the steps.
+     */
+    default StepCursor steps() {
+        return stepLog().steps();
+    }
+
+    default int stepCount() {
+        return stepLog().stepCount();
+    }
+
+    /**
+     * Instrumentation of the work that produced this result, recorded whether or not a metrics
+     * listener was installed, e.g. to show it again for a {@link HullCache} hit.
+     */
+    HullMetrics metrics();
+
+    int inputCount();
+
+    /**
+     * Points the solver ruled out before its main phase, e.g. by interior culling.
+     */
+    int culledCount();
+
+    /**
+     * Approximate heap bytes retained by this result, including its step log, e.g. for a
+     * {@link HullCache} budget.
+     */
+    long estimatedBytes();
+}
@@ -0,0 +1,146 @@
+package av.code.wicked.model;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.function.DoubleConsumer;
+
+import javafx.geometry.Point2D;
+
+/**
+ * Result of the monotone-chain solver for one input, computed up front by
+ * {@link MonotoneChainHull#prepare}, which may run off the JavaFX thread: the optional
+ * Akl–Toussaint culling, the x-then-y sort and both chain scans, whose steps are kept as a compact
+ * {@link StepLog}. Every pass from {@link #steps()} then only decodes the log. Instances are
+ * immutable and can be replayed any number of times.
+ */
+public final class PreparedHullInput implements PreparedHull {
+
+    private final List<Point2D> sortedPoints;
+    private final int inputCount;
+    private final boolean cullInterior;
+    private final StepLog stepLog;
+    private final HullMetrics metrics;
+
+    private PreparedHullInput(List<Point2D> sortedPoints, int inputCount, boolean cullInterior, StepLog stepLog,
+                              HullMetrics metrics) {
+        this.sortedPoints = sortedPoints;
+        this.inputCount = inputCount;
+        this.cullInterior = cullInterior;
+        this.stepLog = stepLog;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Culls, sorts and scans {@code points}, which must be a private, mutable copy. Progress is
+     * reported as a fraction in {@code [0, 1]}; an interrupted thread stops with a
+     * {@link CancellationException}. The work is recorded as {@link #metrics()} and reported to
+     * {@code metricsListener} unless it is {@code null}; the result does not keep the listener.
+     */
+    static PreparedHullInput prepare(List<Point2D> points, boolean cullInterior, DoubleConsumer progress,
+                                     HullMetricsListener metricsListener) {
+        int inputCount = points.size();
+        HullMetricsRecorder recorder = new HullMetricsRecorder(metricsListener);
+        progress.accept(0);
+        cullAndSort(points, cullInterior, progress, recorder);
+        List<Point2D> sortedPoints = Collections.unmodifiableList(points);
+        StepLog stepLog = MonotoneChainStepGenerator.record(sortedPoints, inputCount, cullInterior, recorder);
+        checkInterrupted();
+        progress.accept(1);
+        HullMetrics metrics = recorder.report(inputCount, inputCount - points.size());
+        return new PreparedHullInput(sortedPoints, inputCount, cullInterior, stepLog, metrics);
+    }
+
+    /**
+     * Culls and sorts {@code points} in place, timing both into {@code recorder} unless it is
+     * {@code null}.
+     */
+    static void cullAndSort(List<Point2D> points, boolean cullInterior, DoubleConsumer progress,
+                            HullMetricsRecorder recorder) {
+        long start = System.nanoTime();
+        if (cullInterior) {
+            List<Point2D> survivors = AklToussaintFilter.cull(points);
+            points.clear();
+            points.addAll(survivors);
+            checkInterrupted();
+            progress.accept(0.2);
+        }
+        long culled = System.nanoTime();
+        sortByXThenY(points);
+        long sorted = System.nanoTime();
+        checkInterrupted();
+        progress.accept(0.5);
+        if (recorder != null) {
+            recorder.cullNanos = culled - start;
+            recorder.sortNanos = sorted - culled;
+        }
+    }
+
+    @Override
+    public StepLog stepLog() {
+        return stepLog;
+    }
+
+    @Override
+    public HullMetrics metrics() {
+        return metrics;
+    }
+
+    /**
+     * Surviving points ordered by x, then y.
+     */
+    public List<Point2D> points() {
+        return sortedPoints;
+    }
+
+    @Override
+    public int inputCount() {
+        return inputCount;
+    }
+
+    @Override
+    public int culledCount() {
+        return inputCount - sortedPoints.size();
+    }
+
+    /**
+     * A reference plus a {@link Point2D} per surviving point, and the step log.
+     */
+    @Override
+    public long estimatedBytes() {
+        return 64 + 40L * sortedPoints.size() + stepLog.estimatedBytes();
+    }
+
+    public boolean cullInterior() {
+        return cullInterior;
+    }
+
+    static void checkInterrupted() {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("hull preparation interrupted");
+        }
+    }
+
+    /**
+     * Orders the points through a primitive index sort instead of a boxed comparator chain.
+     */
+    private static void sortByXThenY(List<Point2D> points) {
+        int count = points.size();
+        double[] xs = new double[count];
+        double[] ys = new double[count];
+        int[] order = new int[count];
+        for (int i = 0; i < count; i++) {
+            xs[i] = points.get(i).getX();
+            ys[i] = points.get(i).getY();
+            order[i] = i;
+        }
+        new LexicographicSort().sort(xs, ys, order, count);
+        Point2D[] sorted = new Point2D[count];
+        for (int i = 0; i < count; i++) {
+            sorted[i] = points.get(order[i]);
+        }
+        for (int i = 0; i < count; i++) {
+            points.set(i, sorted[i]);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package av.code.wicked.model;
+
+import java.util.Arrays;
+
+/**
+ * QuickHull: splits the points by the line through the leftmost and rightmost point, then
+ * repeatedly takes the point farthest from a hull edge as a new vertex and discards everything
+ * inside the triangle it forms with that edge. Expected O(n log h) on typical inputs and fastest
+ * of the engines when the hull is small, but O(nh) in the worst case, e.g. points on a circle.
+ * <p>
+ * Recursion runs on an explicit stack over one partitioned index array, so deep splits cannot
+ * overflow the thread stack. Distances are compared in plain doubles; a rounding slip only adds a
+ * candidate, since the exact chain scan in {@link OutputSensitiveHull} decides the vertices.
+ * <p>
+ * Instances are thread-safe; every computation allocates its own scratch.
+ */
+public final class QuickHull extends OutputSensitiveHull {
+
+    private static final int FRAME = 4;
+
+    @Override
+    public String name() {
+        return "QuickHull";
+    }
+
+    @Override
+    int findCandidates(double[] xs, double[] ys, int[] candidatesOut, HullMetricsRecorder recorder) {
+        int count = xs.length;
+        int leftmost = 0;
+        int rightmost = 0;
+        for (int i = 1; i < count; i++) {
+            if (less(xs, ys, i, leftmost)) {
+                leftmost = i;
+            }
+            if (less(xs, ys, rightmost, i)) {
+                rightmost = i;
+            }
+        }
+        candidatesOut[0] = leftmost;
+        candidatesOut[1] = rightmost;
+        int found = 2;
+        long tests = count;
+
+        // Points above the split line fill the work array from the front, points below from the back.
+        int[] work = new int[count];
+        int above = 0;
+        int below = count;
+        for (int i = 0; i < count; i++) {
+            int side = Orientation.sign(xs[leftmost], ys[leftmost], xs[rightmost], ys[rightmost], xs[i], ys[i]);
+            if (side > 0) {
+                work[above++] = i;
+            } else if (side < 0) {
+                work[--below] = i;
+            }
+        }
+
+        // Frames are (a, b, from, to): the points in work[from, to) lie strictly left of edge a -> b.
+        int[] stack = new int[16 * FRAME];
+        int top = 0;
+        stack[top++] = leftmost;
+        stack[top++] = rightmost;
+        stack[top++] = 0;
+        stack[top++] = above;
+        stack[top++] = rightmost;
+        stack[top++] = leftmost;
+        stack[top++] = below;
+        stack[top++] = count;
+        int frames = 0;
+        while (top > 0) {
+            int to = stack[--top];
+            int from = stack[--top];
+            int b = stack[--top];
+            int a = stack[--top];
+            if (from == to) {
+                continue;
+            }
+            if ((++frames & 0xFF) == 0) {
+                checkInterrupted();
+            }
+            int c = farthest(xs, ys, a, b, work, from, to);
+            candidatesOut[found++] = c;
+
+            // Three-way partition: left of a -> c to the front, left of c -> b to the back, the rest
+            // lies in triangle a, c, b and is dropped.
+            int front = from;
+            int back = to;
+            int i = from;
+            while (i < back) {
+                int p = work[i];
+                tests++;
+                if (Orientation.sign(xs[a], ys[a], xs[c], ys[c], xs[p], ys[p]) > 0) {
+                    work[i++] = work[front];
+                    work[front++] = p;
+                    continue;
+                }
+                tests++;
+                if (Orientation.sign(xs[c], ys[c], xs[b], ys[b], xs[p], ys[p]) > 0) {
+                    work[i] = work[--back];
+                    work[back] = p;
+                } else {
+                    i++;
+                }
+            }
+            if (top + 2 * FRAME > stack.length) {
+                stack = Arrays.copyOf(stack, 2 * stack.length);
+            }
+            stack[top++] = a;
+            stack[top++] = c;
+            stack[top++] = from;
+            stack[top++] = front;
+            stack[top++] = c;
+            stack[top++] = b;
+            stack[top++] = back;
+            stack[top++] = to;
+        }
+        recorder.orientationTests += tests;
+        return found;
+    }
+
+    /**
+     * Point of {@code work[from, to)} farthest from the line through {@code a} and {@code b};
+     * ties go to the lexicographically smallest point.
+     */
+    private static int farthest(double[] xs, double[] ys, int a, int b, int[] work, int from, int to) {
+        double ax = xs[a];
+        double ay = ys[a];
+        double dx = xs[b] - ax;
+        double dy = ys[b] - ay;
+        int best = work[from];
+        double bestDistance = Double.NEGATIVE_INFINITY;
+        for (int i = from; i < to; i++) {
+            int p = work[i];
+            double distance = dx * (ys[p] - ay) - dy * (xs[p] - ax);
+            if (distance > bestDistance || (distance == bestDistance && less(xs, ys, p, best))) {
+                best = p;
+                bestDistance = distance;
+            }
+        }
+        return best;
+    }
+}
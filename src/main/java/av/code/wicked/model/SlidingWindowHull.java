@@ -0,0 +1,377 @@
+package av.code.wicked.model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+
+import javafx.geometry.Point2D;
+
+/**
+ * Convex hull of the most recent points of a stream: at most {@code maxPoints} of them, and none
+ * older than {@code maxAgeNanos}. The hull holds the strictly convex vertices in the order
+ * {@link DynamicConvexHull#hull()} uses.
+ * <p>
+ * Points are stored in blocks of {@value #BLOCK_SIZE} in arrival order, and every block keeps the
+ * hull of its live points; the hull of a union only needs the hulls of its parts. Three parts make
+ * up the window, in the manner of a two-stack queue:
+ * <ul>
+ * <li>the oldest block, which loses points from the front and answers from suffix hulls computed
+ * once, right to left, when it starts expiring;</li>
+ * <li>the sealed blocks in between, merged into one cached hull that only changes when a block is
+ * sealed or the oldest block runs out;</li>
+ * <li>the newest block, whose hull absorbs each added point.</li>
+ * </ul>
+ * An add or expire therefore merges three hulls of h vertices each, O(h log h), plus an amortized
+ * share of rebuilding the cached middle hull every {@value #BLOCK_SIZE} points; it never touches
+ * the window's points. {@link DynamicConvexHull} would also follow the window, in polylogarithmic
+ * time per point, but has to keep every live point in its tree to do so.
+ * <p>
+ * Instances are not thread-safe.
+ */
+public final class SlidingWindowHull {
+
+    static final int BLOCK_SIZE = 256;
+    private static final Point2D[] EMPTY = new Point2D[0];
+
+    private final int maxPoints;
+    private final long maxAgeNanos;
+    private final ArrayDeque<Block> blocks = new ArrayDeque<>();
+    private final HullMerger merger = new HullMerger();
+    private Point2D[] middleHull = EMPTY;
+    private boolean middleStale;
+    private Point2D[] hull = EMPTY;
+    private List<Point2D> hullView = List.of();
+    private int size;
+    private long lastTimestamp;
+    private long addedCount;
+    private long droppedCount;
+
+    /**
+     * Window of the last {@code maxPoints} points regardless of age.
+     */
+    public SlidingWindowHull(int maxPoints) {
+        this(maxPoints, Long.MAX_VALUE);
+    }
+
+    public SlidingWindowHull(int maxPoints, long maxAgeNanos) {
+        if (maxPoints < 1) {
+            throw new IllegalArgumentException("maxPoints must be positive: " + maxPoints);
+        }
+        if (maxAgeNanos < 0) {
+            throw new IllegalArgumentException("maxAgeNanos must not be negative: " + maxAgeNanos);
+        }
+        this.maxPoints = maxPoints;
+        this.maxAgeNanos = maxAgeNanos;
+    }
+
+    /**
+     * Adds a point stamped with {@link System#nanoTime()}.
+     *
+     * @return whether the hull changed
+     */
+    public boolean add(Point2D point) {
+        return add(point, System.nanoTime());
+    }
+
+    /**
+     * Adds a point, then drops the oldest points beyond {@code maxPoints} or older than
+     * {@code maxAgeNanos} before {@code timestampNanos}. Timestamps must not decrease.
+     *
+     * @return whether the hull changed
+     */
+    public boolean add(Point2D point, long timestampNanos) {
+        Objects.requireNonNull(point, "point");
+        // Compared by difference, as System.nanoTime() values may wrap around.
+        if (size > 0 && timestampNanos - lastTimestamp < 0) {
+            throw new IllegalArgumentException("timestamps must not decrease: " + timestampNanos + " < " + lastTimestamp);
+        }
+        lastTimestamp = timestampNanos;
+        Block newest = blocks.peekLast();
+        if (newest == null || newest.size == BLOCK_SIZE) {
+            if (newest != null && newest != blocks.peekFirst()) {
+                middleStale = true;
+            }
+            newest = new Block();
+            blocks.addLast(newest);
+        }
+        newest.append(point, timestampNanos, merger);
+        size++;
+        addedCount++;
+        dropOldest(timestampNanos);
+        return refresh();
+    }
+
+    /**
+     * Drops points older than {@code maxAgeNanos} before {@code nowNanos}, e.g. on a timer while
+     * the stream is quiet.
+     *
+     * @return whether the hull changed
+     */
+    public boolean expire(long nowNanos) {
+        return dropOldest(nowNanos) && refresh();
+    }
+
+    public void clear() {
+        blocks.clear();
+        middleHull = EMPTY;
+        middleStale = false;
+        hull = EMPTY;
+        hullView = List.of();
+        size = 0;
+        addedCount = 0;
+        droppedCount = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Hull vertices: the upper model from left to right followed by the lower model from right to
+     * left without its endpoints. The list is replaced, not modified, when the hull changes.
+     */
+    public List<Point2D> hull() {
+        return hullView;
+    }
+
+    /**
+     * Points added since the window was created or cleared. The window holds the last
+     * {@code addedCount() - droppedCount()} of them, so a caller that mirrors {@link #points()} can
+     * follow it by appending the points it added and removing as many of its oldest points as the
+     * dropped count grew, instead of copying the window.
+     */
+    public long addedCount() {
+        return addedCount;
+    }
+
+    /**
+     * Points dropped from the front of the window, for being too many or too old, since it was
+     * created or cleared.
+     */
+    public long droppedCount() {
+        return droppedCount;
+    }
+
+    /**
+     * Points in the window, oldest first.
+     */
+    public List<Point2D> points() {
+        List<Point2D> points = new ArrayList<>(size);
+        for (Block block : blocks) {
+            points.addAll(Arrays.asList(block.points).subList(block.start, block.size));
+        }
+        return points;
+    }
+
+    /**
+     * @return whether any point was dropped
+     */
+    private boolean dropOldest(long nowNanos) {
+        boolean dropped = false;
+        while (size > 0) {
+            Block oldest = blocks.peekFirst();
+            if (size <= maxPoints && nowNanos - oldest.times[oldest.start] <= maxAgeNanos) {
+                break;
+            }
+            dropped = true;
+            size--;
+            droppedCount++;
+            if (oldest.start + 1 < oldest.size) {
+                oldest.dropFirst(merger);
+                continue;
+            }
+            blocks.removeFirst();
+            // The next block leaves the middle to become the oldest.
+            if (blocks.size() > 1) {
+                middleStale = true;
+            } else {
+                middleHull = EMPTY;
+            }
+        }
+        if (size == 0) {
+            blocks.clear();
+            middleHull = EMPTY;
+            middleStale = false;
+        }
+        return dropped;
+    }
+
+    /**
+     * Recomputes the window hull from its parts.
+     *
+     * @return whether it changed
+     */
+    private boolean refresh() {
+        if (middleStale) {
+            middleStale = false;
+            Iterator<Block> middle = blocks.iterator();
+            merger.reset();
+            if (blocks.size() > 2) {
+                middle.next();
+                for (int i = 1; i < blocks.size() - 1; i++) {
+                    merger.addAll(middle.next().hull);
+                }
+            }
+            middleHull = merger.hull();
+        }
+        merger.reset();
+        if (!blocks.isEmpty()) {
+            merger.addAll(blocks.peekFirst().hull);
+            merger.addAll(middleHull);
+            if (blocks.size() > 1) {
+                merger.addAll(blocks.peekLast().hull);
+            }
+        }
+        Point2D[] merged = merger.hull();
+        if (Arrays.equals(merged, hull)) {
+            return false;
+        }
+        hull = merged;
+        hullView = Collections.unmodifiableList(Arrays.asList(merged));
+        return true;
+    }
+
+    /**
+     * Up to {@value #BLOCK_SIZE} consecutive points; {@code hull} covers {@code [start, size)}.
+     */
+    private static final class Block {
+
+        private final Point2D[] points = new Point2D[BLOCK_SIZE];
+        private final long[] times = new long[BLOCK_SIZE];
+        private int start;
+        private int size;
+        private Point2D[] hull = EMPTY;
+        private Point2D[][] suffixHulls;
+
+        void append(Point2D point, long timestamp, HullMerger merger) {
+            points[size] = point;
+            times[size] = timestamp;
+            size++;
+            merger.reset();
+            merger.addAll(hull);
+            merger.add(point);
+            hull = merger.hull();
+        }
+
+        void dropFirst(HullMerger merger) {
+            points[start] = null;
+            start++;
+            if (size < BLOCK_SIZE) {
+                // Still filling: suffix hulls would go stale with the next append.
+                merger.reset();
+                for (int i = start; i < size; i++) {
+                    merger.add(points[i]);
+                }
+                hull = merger.hull();
+                return;
+            }
+            if (suffixHulls == null) {
+                suffixHulls = new Point2D[BLOCK_SIZE][];
+                Point2D[] suffix = EMPTY;
+                for (int i = BLOCK_SIZE - 1; i >= start; i--) {
+                    merger.reset();
+                    merger.addAll(suffix);
+                    merger.add(points[i]);
+                    suffix = merger.hull();
+                    suffixHulls[i] = suffix;
+                }
+            }
+            hull = suffixHulls[start];
+            suffixHulls[start - 1] = null;
+        }
+    }
+
+    /**
+     * Strict hull of a small point collection through reused coordinate scratch.
+     */
+    private static final class HullMerger {
+
+        private final LexicographicSort sorter = new LexicographicSort();
+        private Point2D[] points = new Point2D[64];
+        private double[] xs = new double[64];
+        private double[] ys = new double[64];
+        private int[] order = new int[64];
+        private int[] chain = new int[128];
+        private int count;
+
+        void reset() {
+            count = 0;
+        }
+
+        void add(Point2D point) {
+            if (count == points.length) {
+                int capacity = 2 * count;
+                points = Arrays.copyOf(points, capacity);
+                xs = Arrays.copyOf(xs, capacity);
+                ys = Arrays.copyOf(ys, capacity);
+                order = new int[capacity];
+                chain = new int[2 * capacity];
+            }
+            points[count] = point;
+            xs[count] = point.getX();
+            ys[count] = point.getY();
+            count++;
+        }
+
+        void addAll(Point2D[] hull) {
+            for (Point2D point : hull) {
+                add(point);
+            }
+        }
+
+        Point2D[] hull() {
+            for (int i = 0; i < count; i++) {
+                order[i] = i;
+            }
+            sorter.sort(xs, ys, order, count);
+            // Coincident points are kept once.
+            int distinct = 0;
+            for (int i = 0; i < count; i++) {
+                if (distinct == 0 || xs[order[i]] != xs[order[distinct - 1]] || ys[order[i]] != ys[order[distinct - 1]]) {
+                    order[distinct++] = order[i];
+                }
+            }
+            if (distinct <= 2) {
+                Point2D[] hull = new Point2D[distinct];
+                for (int i = 0; i < distinct; i++) {
+                    hull[i] = points[order[i]];
+                }
+                return hull;
+            }
+            int k = 0;
+            for (int i = 0; i < distinct; i++) {
+                k = push(k, 0, order[i]);
+            }
+            int lowerStart = k;
+            for (int i = distinct - 2; i >= 0; i--) {
+                k = push(k, lowerStart, order[i]);
+            }
+            // The lower chain ends with the leftmost point again.
+            Point2D[] hull = new Point2D[k - 1];
+            for (int i = 0; i < k - 1; i++) {
+                hull[i] = points[chain[i]];
+            }
+            return hull;
+        }
+
+        /**
+         * Appends {@code p} after popping chain points above {@code floor} that do not turn right.
+         */
+        private int push(int k, int floor, int p) {
+            while (k - floor >= 1 && k >= 2
+                    && Orientation.sign(xs[chain[k - 2]], ys[chain[k - 2]], xs[chain[k - 1]], ys[chain[k - 1]], xs[p], ys[p]) >= 0) {
+                k--;
+            }
+            chain[k++] = p;
+            return k;
+        }
+    }
+}
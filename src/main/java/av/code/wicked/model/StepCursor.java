@@ -0,0 +1,15 @@
+package av.code.wicked.model;
+
+import java.util.Iterator;
+
+/**
+ * Step iterator that can be duplicated at its current position, e.g. to save the rest of a pass
+ * without disturbing playback.
+ */
+public interface StepCursor extends Iterator<HullStep> {
+
+    /**
+     * Returns an independent cursor that yields the same remaining steps as this one.
+     */
+    StepCursor fork();
+}
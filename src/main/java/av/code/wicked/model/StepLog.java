@@ -0,0 +1,471 @@
+package av.code.wicked.model;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+import javafx.geometry.Point2D;
+
+/**
+ * Immutable, compact record of one pass of {@link HullStep}s over a fixed list of points. A log is
+ * written once, e.g. while a hull is prepared, and replayed any number of times: a played step
+ * decodes a few bytes instead of running solver code.
+ * <p>
+ * Steps are a sequence of records terminated by {@code 0xFF}: a flag byte (action ordinal in the
+ * low four bits, then point-present, focus-present and focus-equals-point), the step number as a
+ * varint, a description reference and the point and focus indices as zigzag varint deltas against
+ * the previous point and focus index. A description reference equal to the number of descriptions
+ * seen so far introduces a new UTF-8 string inline; any other value refers back to an earlier one,
+ * so each distinct text is stored once. The point set file stores its step log in this encoding.
+ * <p>
+ * Every {@value #CHECKPOINT_INTERVAL} steps the log keeps a checkpoint: the decoder state and the
+ * chains right after that step. Steps only change the ends of the chains, so the chains are kept as
+ * persistent stacks whose cells later checkpoints share: all checkpoints together hold at most one
+ * cell per append or reduction in the log, plus one copy of the lower chain when it is trimmed,
+ * rather than a copy of both chains each. {@link #seek(int)} restores the checkpoint at or before
+ * a step and replays fewer than {@value #CHECKPOINT_INTERVAL} steps from there.
+ */
+public final class StepLog {
+
+    public static final int CHECKPOINT_INTERVAL = 4096;
+
+    private static final int STEP_POINT = 1 << 4;
+    private static final int STEP_FOCUS = 1 << 5;
+    private static final int STEP_FOCUS_IS_POINT = 1 << 6;
+    private static final int ACTION_MASK = 0x0F;
+    private static final int END_OF_LOG = 0xFF;
+    private static final HullAction[] ACTIONS = HullAction.values();
+
+    private static final StepLog EMPTY = new Writer(List.of()).finish();
+
+    private final List<Point2D> points;
+    private final byte[] bytes;
+    private final String[] descriptions;
+    private final int stepCount;
+    private final Checkpoint[] checkpoints;
+    private final int chainCells;
+
+    private StepLog(List<Point2D> points, byte[] bytes, String[] descriptions, int stepCount,
+                    Checkpoint[] checkpoints, int chainCells) {
+        this.points = points;
+        this.bytes = bytes;
+        this.descriptions = descriptions;
+        this.stepCount = stepCount;
+        this.checkpoints = checkpoints;
+        this.chainCells = chainCells;
+    }
+
+    public static StepLog empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Decodes and validates an encoded log whose point indices refer to {@code points}, recording
+     * its checkpoints on the way.
+     *
+     * @throws IllegalArgumentException if the log is corrupt or refers to a point outside
+     *                                  {@code points}
+     */
+    public static StepLog read(ByteBuffer encoded, List<Point2D> points) {
+        ByteBuffer log = encoded.duplicate();
+        Writer writer = new Writer(points);
+        List<String> seen = new ArrayList<>();
+        int previousPoint = 0;
+        int previousFocus = 0;
+        try {
+            int flags;
+            while ((flags = Byte.toUnsignedInt(log.get())) != END_OF_LOG) {
+                int ordinal = flags & ACTION_MASK;
+                if (ordinal >= ACTIONS.length) {
+                    throw new IllegalArgumentException("unknown action " + ordinal);
+                }
+                int stepNumber = getVarint(log);
+                int reference = getVarint(log);
+                if (reference == seen.size()) {
+                    int length = getVarint(log);
+                    if (length < 0 || length > log.remaining()) {
+                        throw new IllegalArgumentException("description length " + length + " exceeds the step log");
+                    }
+                    byte[] utf8 = new byte[length];
+                    log.get(utf8);
+                    seen.add(new String(utf8, StandardCharsets.UTF_8));
+                } else if (reference < 0 || reference > seen.size()) {
+                    throw new IllegalArgumentException("unknown description " + reference);
+                }
+                int point = -1;
+                if ((flags & STEP_POINT) != 0) {
+                    previousPoint += unzigzag(getVarint(log));
+                    point = checkPoint(previousPoint, points);
+                }
+                int focus = -1;
+                if ((flags & STEP_FOCUS_IS_POINT) != 0) {
+                    focus = point;
+                } else if ((flags & STEP_FOCUS) != 0) {
+                    previousFocus += unzigzag(getVarint(log));
+                    focus = checkPoint(previousFocus, points);
+                }
+                writer.add(stepNumber, ACTIONS[ordinal], point, seen.get(reference), focus);
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("step log ends without its end marker", e);
+        }
+        return writer.finish();
+    }
+
+    private static int checkPoint(int index, List<Point2D> points) {
+        if (index < 0 || index >= points.size()) {
+            throw new IllegalArgumentException("point index " + index + " outside the " + points.size() + " points");
+        }
+        return index;
+    }
+
+    /**
+     * Starts a new pass over the steps, decoding one per {@link StepCursor#next()}.
+     */
+    public StepCursor steps() {
+        return new Cursor(this, 0, 0, 0, 0);
+    }
+
+    public int stepCount() {
+        return stepCount;
+    }
+
+    /**
+     * The points that steps refer to.
+     */
+    public List<Point2D> points() {
+        return points;
+    }
+
+    /**
+     * The encoded steps, including the end marker, as a read-only buffer.
+     */
+    public ByteBuffer encoded() {
+        return ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+    }
+
+    /**
+     * Playback state right after the step at {@code stepIndex}, or after the last step for larger
+     * indices: restored from the nearest checkpoint and replayed from there, so it costs fewer than
+     * {@value #CHECKPOINT_INTERVAL} decoded steps plus one copy of the chains. Logs are immutable,
+     * so this may run on any thread.
+     */
+    public Position seek(int stepIndex) {
+        if (stepIndex < 0) {
+            throw new IllegalArgumentException("stepIndex must not be negative: " + stepIndex);
+        }
+        if (stepCount == 0) {
+            throw new IllegalStateException("the step log is empty");
+        }
+        int target = Math.min(stepIndex, stepCount - 1);
+        Checkpoint checkpoint = checkpoints[target / CHECKPOINT_INTERVAL];
+        Cursor cursor = new Cursor(this, checkpoint.offset(), checkpoint.previousPoint(), checkpoint.previousFocus(),
+                checkpoint.descriptionsSeen());
+        HullStep step = cursor.next();
+        HullChainState chains = new HullChainState();
+        chains.restore(toList(checkpoint.upper()), toList(checkpoint.lower()));
+        for (int position = checkpoint.position(); position < target; position++) {
+            step = cursor.next();
+            chains.apply(step);
+        }
+        return new Position(this, target, cursor, chains, step);
+    }
+
+    /**
+     * Approximate heap bytes: the encoded steps, the checkpoints and the chain cells they share.
+     */
+    public long estimatedBytes() {
+        return 64 + bytes.length + 48L * checkpoints.length + 24L * chainCells;
+    }
+
+    /**
+     * Where {@link #seek(int)} left off: {@code step} is the step at {@code index}, already applied
+     * to {@code chains}, and {@code cursor} yields the steps after it.
+     */
+    public record Position(StepLog log, int index, StepCursor cursor, HullChainState chains, HullStep step) {}
+
+    /**
+     * Encodes steps one at a time and records the checkpoints and chains of the finished log.
+     * Points and focus points are given as indices into the log's point list, or {@code -1}.
+     */
+    public static final class Writer {
+
+        private final List<Point2D> points;
+        private final Map<String, Integer> descriptions = new HashMap<>();
+        private final List<Checkpoint> checkpoints = new ArrayList<>();
+        private byte[] bytes = new byte[256];
+        private int length;
+        private int stepCount;
+        private int previousPoint;
+        private int previousFocus;
+        private Link upper;
+        private Link lower;
+        /** Cells created so far, which numbers the next one. */
+        private int cellsCreated;
+        /** Cells reachable from any checkpoint. */
+        private int chainCells;
+
+        public Writer(List<Point2D> points) {
+            this.points = Objects.requireNonNull(points, "points");
+        }
+
+        public void add(int stepNumber, HullAction action, int point, String description, int focus) {
+            if (point < -1 || point >= points.size() || focus < -1 || focus >= points.size()) {
+                throw new IllegalArgumentException("step refers to a point outside the log: " + point + ", " + focus);
+            }
+            if (point < 0 && (action == HullAction.UPPER_APPEND || action == HullAction.LOWER_APPEND)) {
+                throw new IllegalArgumentException(action + " step without a point");
+            }
+            String text = description != null ? description : "";
+            int offset = length;
+            int pointBefore = previousPoint;
+            int focusBefore = previousFocus;
+            int descriptionsBefore = descriptions.size();
+
+            boolean focusIsPoint = focus >= 0 && focus == point;
+            putByte(action.ordinal()
+                    | (point >= 0 ? STEP_POINT : 0)
+                    | (focus >= 0 ? STEP_FOCUS : 0)
+                    | (focusIsPoint ? STEP_FOCUS_IS_POINT : 0));
+            putVarint(stepNumber);
+            Integer reference = descriptions.get(text);
+            if (reference == null) {
+                putVarint(descriptions.size());
+                byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+                putVarint(utf8.length);
+                ensure(utf8.length);
+                System.arraycopy(utf8, 0, bytes, length, utf8.length);
+                length += utf8.length;
+                descriptions.put(text, descriptions.size());
+            } else {
+                putVarint(reference);
+            }
+            if (point >= 0) {
+                putVarint(zigzag(point - previousPoint));
+                previousPoint = point;
+            }
+            if (focus >= 0 && !focusIsPoint) {
+                putVarint(zigzag(focus - previousFocus));
+                previousFocus = focus;
+            }
+
+            apply(action, point);
+            if (stepCount % CHECKPOINT_INTERVAL == 0) {
+                // Stacks only change at the top and trims copy, so cells below the first one that
+                // predates the previous checkpoint are already counted.
+                int counted = checkpoints.isEmpty() ? 0 : checkpoints.get(checkpoints.size() - 1).cellsCreated();
+                chainCells += newCells(upper, counted) + newCells(lower, counted);
+                checkpoints.add(new Checkpoint(stepCount, offset, pointBefore, focusBefore, descriptionsBefore,
+                        upper, lower, cellsCreated));
+            }
+            stepCount++;
+        }
+
+        public int stepCount() {
+            return stepCount;
+        }
+
+        public StepLog finish() {
+            putByte(END_OF_LOG);
+            String[] table = new String[descriptions.size()];
+            descriptions.forEach((text, reference) -> table[reference] = text);
+            return new StepLog(points, Arrays.copyOf(bytes, length), table, stepCount,
+                    checkpoints.toArray(new Checkpoint[0]), chainCells);
+        }
+
+        /**
+         * Same chain edits as {@link HullChainState#apply}, on the persistent stacks.
+         */
+        private void apply(HullAction action, int point) {
+            switch (action) {
+                case UPPER_APPEND -> upper = push(points.get(point), upper);
+                case UPPER_REDUCTION -> upper = removeMiddle(upper);
+                case LOWER_APPEND -> lower = push(points.get(point), lower);
+                case LOWER_REDUCTION -> lower = removeMiddle(lower);
+                case LOWER_TRIM -> lower = trimEnds(lower);
+                case FILTERED, SORTED, FINALIZED -> {
+                    // Metadata only; the chains are unchanged.
+                }
+            }
+        }
+
+        private Link push(Point2D point, Link chain) {
+            return new Link(point, chain, cellsCreated++);
+        }
+
+        private static int newCells(Link chain, int counted) {
+            int cells = 0;
+            for (Link link = chain; link != null && link.serial >= counted; link = link.next) {
+                cells++;
+            }
+            return cells;
+        }
+
+        private Link removeMiddle(Link chain) {
+            if (chain == null || chain.next == null) {
+                return chain;
+            }
+            return push(chain.point, chain.next.next);
+        }
+
+        /**
+         * Drops both ends; the first point is the bottom of the stack, so the rest is copied once.
+         */
+        private Link trimEnds(Link chain) {
+            if (chain == null) {
+                return null;
+            }
+            List<Point2D> kept = toList(chain.next);
+            Link trimmed = null;
+            for (int i = 1; i < kept.size(); i++) {
+                trimmed = push(kept.get(i), trimmed);
+            }
+            return trimmed;
+        }
+
+        private void putByte(int value) {
+            ensure(1);
+            bytes[length++] = (byte) value;
+        }
+
+        private void putVarint(int value) {
+            ensure(5);
+            while ((value & ~0x7F) != 0) {
+                bytes[length++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[length++] = (byte) value;
+        }
+
+        private void ensure(int extra) {
+            if (length + extra > bytes.length) {
+                long grown = Math.max(2L * bytes.length, (long) length + extra);
+                if (grown > Integer.MAX_VALUE - 8) {
+                    throw new IllegalStateException("step log exceeds " + (Integer.MAX_VALUE - 8) + " bytes");
+                }
+                bytes = Arrays.copyOf(bytes, (int) grown);
+            }
+        }
+    }
+
+    /**
+     * Cell of a persistent chain, the last point first. Cells are numbered in creation order, so
+     * the numbers decrease towards the bottom of a chain.
+     */
+    private record Link(Point2D point, Link next, int serial) {}
+
+    /**
+     * Decoder state before the record of the step at {@code position}, and the chains after it.
+     */
+    private record Checkpoint(int position, int offset, int previousPoint, int previousFocus, int descriptionsSeen,
+                              Link upper, Link lower, int cellsCreated) {}
+
+    private static List<Point2D> toList(Link chain) {
+        int size = 0;
+        for (Link link = chain; link != null; link = link.next) {
+            size++;
+        }
+        Point2D[] points = new Point2D[size];
+        for (Link link = chain; link != null; link = link.next) {
+            points[--size] = link.point;
+        }
+        return new ArrayList<>(Arrays.asList(points));
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static int getVarint(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("varint too long");
+    }
+
+    /**
+     * Decodes one step per call. The log was validated when it was written or read, and the
+     * description table is complete, so inline descriptions are skipped rather than decoded.
+     */
+    private static final class Cursor implements StepCursor {
+
+        private final StepLog log;
+        private int offset;
+        private int previousPoint;
+        private int previousFocus;
+        private int descriptionsSeen;
+
+        Cursor(StepLog log, int offset, int previousPoint, int previousFocus, int descriptionsSeen) {
+            this.log = log;
+            this.offset = offset;
+            this.previousPoint = previousPoint;
+            this.previousFocus = previousFocus;
+            this.descriptionsSeen = descriptionsSeen;
+        }
+
+        @Override
+        public StepCursor fork() {
+            return new Cursor(log, offset, previousPoint, previousFocus, descriptionsSeen);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return Byte.toUnsignedInt(log.bytes[offset]) != END_OF_LOG;
+        }
+
+        @Override
+        public HullStep next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int flags = Byte.toUnsignedInt(log.bytes[offset++]);
+            int stepNumber = varint();
+            int reference = varint();
+            if (reference == descriptionsSeen) {
+                int length = varint();
+                offset += length;
+                descriptionsSeen++;
+            }
+            Point2D point = null;
+            if ((flags & STEP_POINT) != 0) {
+                previousPoint += unzigzag(varint());
+                point = log.points.get(previousPoint);
+            }
+            Point2D focus = null;
+            if ((flags & STEP_FOCUS_IS_POINT) != 0) {
+                focus = point;
+            } else if ((flags & STEP_FOCUS) != 0) {
+                previousFocus += unzigzag(varint());
+                focus = log.points.get(previousFocus);
+            }
+            return new HullStep(stepNumber, ACTIONS[flags & ACTION_MASK], point, log.descriptions[reference], focus);
+        }
+
+        private int varint() {
+            int value = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = log.bytes[offset++];
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package av.code.wicked.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event for one {@link RandomPointGenerator#generatePoints} call.
+ */
+@Name("av.code.wicked.PointGeneration")
+@Label("Random Point Generation")
+@Category({"Convex Hull", "Input"})
+@Description("Generation of random points for the canvas")
+final class PointGenerationEvent extends Event {
+
+    @Label("Point Count")
+    int pointCount;
+}
@@ -32,12 +32,16 @@ public final class RandomPointGenerator {
         if (usableWidth == 0 || usableHeight == 0) {
             return List.of();
         }
+        PointGenerationEvent event = new PointGenerationEvent();
+        event.begin();
         List<Point2D> points = new ArrayList<>(count);
         for (int i = 0; i < count; i++) {
             double x = padding + random.nextDouble() * usableWidth;
             double y = padding + random.nextDouble() * usableHeight;
             points.add(new Point2D(x, y));
         }
+        event.pointCount = count;
+        event.commit();
         return points;
     }
 }
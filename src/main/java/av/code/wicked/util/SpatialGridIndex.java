@@ -0,0 +1,128 @@
+package av.code.wicked.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import javafx.geometry.Point2D;
+
+/**
+ * Uniform hash grid over model points for nearest-within-radius and rectangle queries. With a cell
+ * size close to the query radius, a lookup only visits the handful of cells around the query point,
+ * independent of the total number of points.
+ */
+public final class SpatialGridIndex {
+
+    private final double cellSize;
+    private final Map<Long, List<Point2D>> cells = new HashMap<>();
+    private int size;
+
+    public SpatialGridIndex(double cellSize) {
+        if (!(cellSize > 0)) {
+            throw new IllegalArgumentException("cellSize must be positive: " + cellSize);
+        }
+        this.cellSize = cellSize;
+    }
+
+    public void add(Point2D point) {
+        cells.computeIfAbsent(key(cell(point.getX()), cell(point.getY())), k -> new ArrayList<>()).add(point);
+        size++;
+    }
+
+    /**
+     * Removes one occurrence of {@code point}.
+     *
+     * @return whether the point was indexed
+     */
+    public boolean remove(Point2D point) {
+        long key = key(cell(point.getX()), cell(point.getY()));
+        List<Point2D> bucket = cells.get(key);
+        if (bucket == null || !bucket.remove(point)) {
+            return false;
+        }
+        if (bucket.isEmpty()) {
+            cells.remove(key);
+        }
+        size--;
+        return true;
+    }
+
+    public void clear() {
+        cells.clear();
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the indexed point closest to {@code (x, y)} within {@code radius}, or {@code null}.
+     */
+    public Point2D nearest(double x, double y, double radius) {
+        Point2D[] best = new Point2D[1];
+        double[] bestDistance = {radius * radius};
+        forEachBucket(cell(x - radius), cell(y - radius), cell(x + radius), cell(y + radius), bucket -> {
+            for (Point2D point : bucket) {
+                double dx = point.getX() - x;
+                double dy = point.getY() - y;
+                double distanceSq = dx * dx + dy * dy;
+                if (distanceSq <= bestDistance[0]) {
+                    bestDistance[0] = distanceSq;
+                    best[0] = point;
+                }
+            }
+        });
+        return best[0];
+    }
+
+    /**
+     * Visits every indexed point inside the closed rectangle {@code [minX, maxX] x [minY, maxY]}.
+     */
+    public void forEachInRange(double minX, double minY, double maxX, double maxY, Consumer<Point2D> action) {
+        forEachBucket(cell(minX), cell(minY), cell(maxX), cell(maxY), bucket -> {
+            for (Point2D point : bucket) {
+                if (point.getX() >= minX && point.getX() <= maxX && point.getY() >= minY && point.getY() <= maxY) {
+                    action.accept(point);
+                }
+            }
+        });
+    }
+
+    /**
+     * Visits the non-empty buckets in a cell rectangle. A rectangle spanning more cells than are
+     * occupied, as with a zoomed-out view, scans the occupied cells instead of probing every one.
+     */
+    private void forEachBucket(int minCellX, int minCellY, int maxCellX, int maxCellY, Consumer<List<Point2D>> action) {
+        long spanned = ((long) maxCellX - minCellX + 1) * ((long) maxCellY - minCellY + 1);
+        if (spanned > cells.size()) {
+            for (Map.Entry<Long, List<Point2D>> entry : cells.entrySet()) {
+                long key = entry.getKey();
+                int cx = (int) (key >> 32);
+                int cy = (int) key;
+                if (cx >= minCellX && cx <= maxCellX && cy >= minCellY && cy <= maxCellY) {
+                    action.accept(entry.getValue());
+                }
+            }
+            return;
+        }
+        for (int cx = minCellX; cx <= maxCellX; cx++) {
+            for (int cy = minCellY; cy <= maxCellY; cy++) {
+                List<Point2D> bucket = cells.get(key(cx, cy));
+                if (bucket != null) {
+                    action.accept(bucket);
+                }
+            }
+        }
+    }
+
+    private int cell(double coordinate) {
+        return (int) Math.floor(coordinate / cellSize);
+    }
+
+    private static long key(int cellX, int cellY) {
+        return ((long) cellX << 32) | (cellY & 0xFFFFFFFFL);
+    }
+}
@@ -1,7 +1,10 @@
 package av.code.wicked.view;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 
+import javafx.beans.InvalidationListener;
 import javafx.geometry.Insets;
 import javafx.scene.Group;
 import javafx.scene.control.Label;
@@ -11,6 +14,12 @@ import javafx.scene.shape.Line;
 
 /**
  * Renders ruler ticks and labels around the drawing canvas using a Cartesian coordinate frame.
+ * <p>
+ * Ticks sit at round model values of the mapper's current view, spaced at least
+ * {@value #MIN_PIXEL_STEP} pixels apart. Tick lines and labels are pooled and repositioned on resize,
+ * zoom and pan rather than recreated; label text is only reformatted when a ruler's tick step or
+ * range of tick values changes. Listeners are registered once per configured mapper and strip, so
+ * repeated resizing does no more work over time.
  */
 public final class AxisOverlay extends Pane {
 
@@ -18,93 +27,82 @@ public final class AxisOverlay extends Pane {
     private static final double MIN_PIXEL_STEP = 70;
 
     private final Group graphics = new Group();
+    private final Line top = borderLine();
+    private final Line bottom = borderLine();
+    private final Line left = borderLine();
+    private final Line right = borderLine();
+    private final Ruler horizontalRuler = new Ruler(true);
+    private final Ruler verticalRuler = new Ruler(false);
+    private final InvalidationListener redrawListener = obs -> redraw();
     private CoordinateMapper mapper;
-    private Pane verticalStrip;
-    private Pane horizontalStrip;
 
     public AxisOverlay() {
         setPickOnBounds(false);
         setMouseTransparent(true);
+        graphics.getChildren().addAll(top, bottom, left, right);
         getChildren().add(graphics);
-        widthProperty().addListener((obs, oldVal, newVal) -> redraw());
-        heightProperty().addListener((obs, oldVal, newVal) -> redraw());
+        widthProperty().addListener(redrawListener);
+        heightProperty().addListener(redrawListener);
     }
 
     public void configure(CoordinateMapper mapper, Pane verticalStrip, Pane horizontalStrip) {
-        this.mapper = Objects.requireNonNull(mapper, "mapper");
-        this.verticalStrip = Objects.requireNonNull(verticalStrip, "verticalStrip");
-        this.horizontalStrip = Objects.requireNonNull(horizontalStrip, "horizontalStrip");
-        this.mapper.widthProperty().addListener((obs, oldVal, newVal) -> redraw());
-        this.mapper.heightProperty().addListener((obs, oldVal, newVal) -> redraw());
+        Objects.requireNonNull(mapper, "mapper");
+        Objects.requireNonNull(verticalStrip, "verticalStrip");
+        Objects.requireNonNull(horizontalStrip, "horizontalStrip");
+        if (this.mapper != null) {
+            this.mapper.widthProperty().removeListener(redrawListener);
+            this.mapper.heightProperty().removeListener(redrawListener);
+            this.mapper.viewProperty().removeListener(redrawListener);
+        }
+        this.mapper = mapper;
+        mapper.widthProperty().addListener(redrawListener);
+        mapper.heightProperty().addListener(redrawListener);
+        mapper.viewProperty().addListener(redrawListener);
+        verticalRuler.attach(verticalStrip);
+        horizontalRuler.attach(horizontalStrip);
         redraw();
     }
 
     private void redraw() {
-        graphics.getChildren().clear();
-        if (verticalStrip != null) {
-            verticalStrip.getChildren().clear();
-        }
-        if (horizontalStrip != null) {
-            horizontalStrip.getChildren().clear();
-        }
+        AxisRedrawEvent event = new AxisRedrawEvent();
+        event.begin();
         double width = getWidth();
         double height = getHeight();
         if (width <= 0 || height <= 0 || mapper == null) {
+            graphics.setVisible(false);
+            horizontalRuler.hide();
+            verticalRuler.hide();
             return;
         }
-        drawBorder(width, height);
-        drawHorizontalRuler(width, height);
-        drawVerticalRuler(width, height);
-    }
-
-    private void drawBorder(double width, double height) {
-        Line top = new Line(0, 0, width, 0);
-        Line bottom = new Line(0, height, width, height);
-        Line left = new Line(0, 0, 0, height);
-        Line right = new Line(width, 0, width, height);
-        top.setStroke(Color.BLACK);
-        bottom.setStroke(Color.BLACK);
-        left.setStroke(Color.BLACK);
-        right.setStroke(Color.BLACK);
-        graphics.getChildren().addAll(top, bottom, left, right);
-    }
-
-    private void drawHorizontalRuler(double width, double height) {
-        if (horizontalStrip == null) {
-            return;
-        }
-        double step = computeStep(width);
-        double offset = verticalStrip != null ? verticalStrip.getWidth() : 0;
-        for (double value = 0; value <= width + 0.5; value += step) {
-            double x = Math.min(value, width);
-            Line tick = new Line(x, height, x, height - TICK_LENGTH);
-            tick.setStroke(Color.BLACK);
-            graphics.getChildren().add(tick);
-            if (Math.abs(value) > 1e-6) {
-                addLabel(horizontalStrip, formatValue(value), offset + x, horizontalStrip.getHeight() * 0.25);
-            }
+        graphics.setVisible(true);
+        top.setEndX(width);
+        bottom.setStartY(height);
+        bottom.setEndX(width);
+        bottom.setEndY(height);
+        left.setEndY(height);
+        right.setStartX(width);
+        right.setEndX(width);
+        right.setEndY(height);
+        boolean relabeled = horizontalRuler.update(width, height);
+        relabeled |= verticalRuler.update(width, height);
+        if (event.shouldCommit()) {
+            event.width = width;
+            event.height = height;
+            event.relabeled = relabeled;
+            event.commit();
         }
     }
 
-    private void drawVerticalRuler(double width, double height) {
-        if (verticalStrip == null) {
-            return;
-        }
-        double step = computeStep(height);
-        for (double offset = 0; offset <= height + 0.5; offset += step) {
-            double y = Math.min(height - offset, height);
-            Line tick = new Line(0, y, TICK_LENGTH, y);
-            tick.setStroke(Color.BLACK);
-            graphics.getChildren().add(tick);
-            double value = mapper.toModelY(y);
-            if (Math.abs(value) > 1e-6) {
-                addLabel(verticalStrip, formatValue(value), verticalStrip.getWidth() * 0.2, y);
-            }
-        }
+    private static Line borderLine() {
+        Line line = new Line();
+        line.setStroke(Color.BLACK);
+        return line;
     }
 
-    private double computeStep(double span) {
-        double rawStep = Math.max(MIN_PIXEL_STEP, span / 8d);
+    /**
+     * Rounds {@code rawStep} up or down to the nearest 1, 2 or 5 times a power of ten.
+     */
+    private static double niceStep(double rawStep) {
         double magnitude = Math.pow(10, Math.floor(Math.log10(rawStep)));
         double normalized = rawStep / magnitude;
         double nice;
@@ -120,30 +118,166 @@ public final class AxisOverlay extends Pane {
         return nice * magnitude;
     }
 
-    private void addLabel(Pane host, String text, double absoluteX, double absoluteY) {
-        Label label = new Label(text);
-        label.setPadding(Insets.EMPTY);
-        label.setTextFill(Color.BLACK);
-        host.getChildren().add(label);
-        Runnable align = () -> {
-            double width = label.prefWidth(-1);
-            double height = label.prefHeight(-1);
-            double x = Math.max(2, Math.min(host.getWidth() - width - 2, absoluteX - width / 2 - (host == horizontalStrip && verticalStrip != null ? verticalStrip.getWidth() : 0)));
-            double y = Math.max(2, Math.min(host.getHeight() - height - 2, absoluteY - height / 2));
-            label.setLayoutX(x);
-            label.setLayoutY(y);
-        };
-        label.layoutBoundsProperty().addListener((obs, oldBounds, newBounds) -> align.run());
-        host.widthProperty().addListener((obs, oldVal, newVal) -> align.run());
-        host.heightProperty().addListener((obs, oldVal, newVal) -> align.run());
-        align.run();
+    private static String formatValue(double value, double step) {
+        int decimals = (int) Math.max(0, Math.ceil(-Math.log10(step) - 1e-9));
+        return String.format("%." + decimals + "f", value);
     }
 
-    private String formatValue(double value) {
-        double rounded = Math.rint(value * 10) / 10;
-        if (Math.abs(rounded - Math.rint(rounded)) < 1e-4) {
-            return String.format("%.0f", rounded);
+    /**
+     * One ruler: its tick lines live in the overlay, its labels in the host strip beside the canvas.
+     */
+    private final class Ruler {
+
+        private final boolean horizontal;
+        private final List<Line> ticks = new ArrayList<>();
+        private final List<TickLabel> labels = new ArrayList<>();
+        private final InvalidationListener alignListener = obs -> alignLabels();
+        private Pane host;
+        private double step = Double.NaN;
+        private long firstTick;
+        private int tickCount;
+        private int labelCount;
+
+        Ruler(boolean horizontal) {
+            this.horizontal = horizontal;
+        }
+
+        void attach(Pane newHost) {
+            if (host != null) {
+                host.widthProperty().removeListener(alignListener);
+                host.heightProperty().removeListener(alignListener);
+                for (TickLabel tickLabel : labels) {
+                    host.getChildren().remove(tickLabel.label);
+                }
+            }
+            host = newHost;
+            host.widthProperty().addListener(alignListener);
+            host.heightProperty().addListener(alignListener);
+            for (TickLabel tickLabel : labels) {
+                host.getChildren().add(tickLabel.label);
+            }
+            step = Double.NaN;
+        }
+
+        /**
+         * @return whether label text was reformatted
+         */
+        boolean update(double width, double height) {
+            double span = horizontal ? width : height;
+            double scale = mapper.getScale();
+            double newStep = niceStep(Math.max(MIN_PIXEL_STEP, span / 8d) / scale);
+            double low = horizontal ? mapper.toModelX(0) : mapper.toModelY(height);
+            double high = horizontal ? mapper.toModelX(width + 0.5) : mapper.toModelY(-0.5);
+            long newFirst = (long) Math.ceil(low / newStep - 1e-9);
+            int newCount = (int) Math.max(0, (long) Math.floor(high / newStep + 1e-9) - newFirst + 1);
+            boolean retext = newStep != step || newFirst != firstTick || newCount != tickCount;
+            step = newStep;
+            firstTick = newFirst;
+            tickCount = newCount;
+
+            while (ticks.size() < tickCount) {
+                Line tick = borderLine();
+                ticks.add(tick);
+                graphics.getChildren().add(tick);
+            }
+            for (int i = 0; i < ticks.size(); i++) {
+                Line tick = ticks.get(i);
+                tick.setVisible(i < tickCount);
+                if (i >= tickCount) {
+                    continue;
+                }
+                double position = position(i, width, height);
+                if (horizontal) {
+                    tick.setStartX(position);
+                    tick.setStartY(height);
+                    tick.setEndX(position);
+                    tick.setEndY(height - TICK_LENGTH);
+                } else {
+                    tick.setStartX(0);
+                    tick.setStartY(position);
+                    tick.setEndX(TICK_LENGTH);
+                    tick.setEndY(position);
+                }
+            }
+
+            if (retext) {
+                relabel();
+            }
+            for (int i = 0; i < labelCount; i++) {
+                TickLabel tickLabel = labels.get(i);
+                tickLabel.position = position(tickLabel.tick, width, height);
+            }
+            alignLabels();
+            return retext;
+        }
+
+        void hide() {
+            for (int i = 0; i < labelCount; i++) {
+                labels.get(i).label.setVisible(false);
+            }
+            labelCount = 0;
+            step = Double.NaN;
+        }
+
+        private double value(int tick) {
+            return (firstTick + tick) * step;
+        }
+
+        private double position(int tick, double width, double height) {
+            double value = value(tick);
+            return horizontal ? Math.min(mapper.toViewX(value), width) : mapper.toViewY(value);
+        }
+
+        private void relabel() {
+            int used = 0;
+            for (int i = 0; i < tickCount; i++) {
+                double value = value(i);
+                // The origin is left unlabelled, as it sits in the corner of the default view.
+                if (firstTick + i == 0) {
+                    continue;
+                }
+                if (used == labels.size()) {
+                    labels.add(new TickLabel());
+                }
+                TickLabel tickLabel = labels.get(used++);
+                tickLabel.tick = i;
+                tickLabel.label.setText(formatValue(value, step));
+                tickLabel.label.setVisible(true);
+            }
+            for (int i = used; i < labelCount; i++) {
+                labels.get(i).label.setVisible(false);
+            }
+            labelCount = used;
+        }
+
+        private void alignLabels() {
+            for (int i = 0; i < labelCount; i++) {
+                labels.get(i).align();
+            }
+        }
+
+        private final class TickLabel {
+
+            private final Label label = new Label();
+            private int tick;
+            private double position;
+
+            TickLabel() {
+                label.setPadding(Insets.EMPTY);
+                label.setTextFill(Color.BLACK);
+                // Text width is only known once the label is skinned, so realign when its bounds settle.
+                label.layoutBoundsProperty().addListener((obs, oldBounds, newBounds) -> align());
+                host.getChildren().add(label);
+            }
+
+            void align() {
+                double labelWidth = label.prefWidth(-1);
+                double labelHeight = label.prefHeight(-1);
+                double anchorX = horizontal ? position : host.getWidth() * 0.2;
+                double anchorY = horizontal ? host.getHeight() * 0.25 : position;
+                label.setLayoutX(Math.max(2, Math.min(host.getWidth() - labelWidth - 2, anchorX - labelWidth / 2)));
+                label.setLayoutY(Math.max(2, Math.min(host.getHeight() - labelHeight - 2, anchorY - labelHeight / 2)));
+            }
         }
-        return String.format("%.1f", rounded);
     }
 }
@@ -0,0 +1,27 @@
+package av.code.wicked.view;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event for one {@link AxisOverlay} redraw.
+ */
+@Name("av.code.wicked.AxisRedraw")
+@Label("Axis Redraw")
+@Category({"Convex Hull", "Rendering"})
+@Description("Repositioning of the ruler ticks and labels")
+final class AxisRedrawEvent extends Event {
+
+    @Label("Width")
+    double width;
+
+    @Label("Height")
+    double height;
+
+    @Label("Relabeled")
+    @Description("Whether label text was reformatted because a tick step or range changed")
+    boolean relabeled;
+}
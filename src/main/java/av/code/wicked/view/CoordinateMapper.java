@@ -4,6 +4,8 @@ import java.util.Objects;
 
 import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.ReadOnlyDoubleProperty;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
 import javafx.beans.property.SimpleDoubleProperty;
 import javafx.beans.value.ObservableValue;
 import javafx.geometry.Point2D;
@@ -12,11 +14,27 @@ import javafx.geometry.Point2D;
  * Converts between JavaFX view coordinates (origin top-left) and
  * mathematical coordinates (origin bottom-left) while tracking the
  * current canvas dimensions.
+ * <p>
+ * A {@link View} adds zoom and pan on top of the axis flip: it holds the scale in pixels per model
+ * unit and the model coordinates shown at the bottom-left corner. The default view maps one model
+ * unit to one pixel with the model origin in that corner.
  */
 public final class CoordinateMapper {
 
+    static final double MIN_SCALE = 1e-6;
+    static final double MAX_SCALE = 1e6;
+
+    /**
+     * Zoom and pan state; replaced as a whole so listeners observe one change per gesture step.
+     */
+    public record View(double scale, double originX, double originY) {
+
+        public static final View IDENTITY = new View(1, 0, 0);
+    }
+
     private final DoubleProperty width = new SimpleDoubleProperty();
     private final DoubleProperty height = new SimpleDoubleProperty();
+    private final ReadOnlyObjectWrapper<View> view = new ReadOnlyObjectWrapper<>(View.IDENTITY);
 
     public void bindTo(ObservableValue<? extends Number> widthSource,
                        ObservableValue<? extends Number> heightSource) {
@@ -31,7 +49,7 @@ public final class CoordinateMapper {
     }
 
     public Point2D toModel(double viewX, double viewY) {
-        return new Point2D(viewX, toModelY(viewY));
+        return new Point2D(toModelX(viewX), toModelY(viewY));
     }
 
     public Point2D toView(Point2D modelPoint) {
@@ -39,17 +57,87 @@ public final class CoordinateMapper {
     }
 
     public Point2D toView(double modelX, double modelY) {
-        return new Point2D(modelX, toViewY(modelY));
+        return new Point2D(toViewX(modelX), toViewY(modelY));
+    }
+
+    public double toModelX(double viewX) {
+        View v = view.get();
+        return v.originX() + viewX / v.scale();
     }
 
     public double toModelY(double viewY) {
+        View v = view.get();
         double h = height.get();
-        return h <= 0 ? viewY : h - viewY;
+        return v.originY() + (h <= 0 ? viewY : h - viewY) / v.scale();
+    }
+
+    public double toViewX(double modelX) {
+        View v = view.get();
+        return (modelX - v.originX()) * v.scale();
     }
 
     public double toViewY(double modelY) {
+        View v = view.get();
+        double h = height.get();
+        double offset = (modelY - v.originY()) * v.scale();
+        return h <= 0 ? offset : h - offset;
+    }
+
+    /**
+     * Scales the view by {@code factor} while keeping the model point under {@code (viewX, viewY)} fixed.
+     */
+    public void zoom(double factor, double viewX, double viewY) {
+        if (!(factor > 0) || Double.isInfinite(factor)) {
+            throw new IllegalArgumentException("factor must be positive and finite: " + factor);
+        }
+        View v = view.get();
+        double scale = Math.clamp(v.scale() * factor, MIN_SCALE, MAX_SCALE);
+        double anchorX = toModelX(viewX);
+        double anchorY = toModelY(viewY);
         double h = height.get();
-        return h <= 0 ? modelY : h - modelY;
+        double fromBottom = h <= 0 ? viewY : h - viewY;
+        view.set(new View(scale, anchorX - viewX / scale, anchorY - fromBottom / scale));
+    }
+
+    /**
+     * Moves the view content by the given number of pixels.
+     */
+    public void pan(double deltaViewX, double deltaViewY) {
+        View v = view.get();
+        view.set(new View(v.scale(), v.originX() - deltaViewX / v.scale(), v.originY() + deltaViewY / v.scale()));
+    }
+
+    /**
+     * Centres the model rectangle in the view at the largest scale that shows all of it.
+     */
+    public void fit(double minX, double minY, double maxX, double maxY, double marginPixels) {
+        double w = width.get() - 2 * marginPixels;
+        double h = height.get() - 2 * marginPixels;
+        if (w <= 0 || h <= 0 || !(maxX >= minX) || !(maxY >= minY)) {
+            return;
+        }
+        double spanX = Math.max(maxX - minX, Double.MIN_NORMAL);
+        double spanY = Math.max(maxY - minY, Double.MIN_NORMAL);
+        double scale = Math.clamp(Math.min(w / spanX, h / spanY), MIN_SCALE, MAX_SCALE);
+        double originX = (minX + maxX) / 2 - width.get() / 2 / scale;
+        double originY = (minY + maxY) / 2 - height.get() / 2 / scale;
+        view.set(new View(scale, originX, originY));
+    }
+
+    public void resetView() {
+        view.set(View.IDENTITY);
+    }
+
+    public View getView() {
+        return view.get();
+    }
+
+    public double getScale() {
+        return view.get().scale();
+    }
+
+    public ReadOnlyObjectProperty<View> viewProperty() {
+        return view.getReadOnlyProperty();
     }
 
     public double getWidth() {
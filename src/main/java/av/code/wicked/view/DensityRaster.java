@@ -0,0 +1,94 @@
+package av.code.wicked.view;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+
+import javafx.geometry.Point2D;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+/**
+ * Level-of-detail frame for large point clouds, computed off the FX thread from a snapshot of the
+ * points. One pass bins every point into a pixel of the view; when no more than
+ * {@code pointLimit} points are visible the frame keeps those points so they can be drawn
+ * individually, otherwise it keeps a density image shaded by the logarithm of each pixel's count.
+ */
+final class DensityRaster {
+
+    private static final int INTERRUPT_CHECK_MASK = (1 << 16) - 1;
+    private static final double MIN_ALPHA = 0.3;
+
+    /**
+     * @param image density image covering the view, or {@code null} when {@code visiblePoints} is set
+     * @param visiblePoints points near the view when few enough are visible, otherwise {@code null}
+     */
+    record Frame(CoordinateMapper.View view, int width, int height, WritableImage image, Point2D[] visiblePoints) {
+    }
+
+    private DensityRaster() {
+    }
+
+    /**
+     * Renders one frame for {@code view} on a {@code width x height} canvas. Points within
+     * {@code margin} pixels of the edge count as visible so partially shown markers are kept. An
+     * interrupted thread stops with a {@link CancellationException}.
+     */
+    static Frame render(Point2D[] points, CoordinateMapper.View view, int width, int height,
+                        double margin, int pointLimit, Color color) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("raster must not be empty: " + width + "x" + height);
+        }
+        double scale = view.scale();
+        double originX = view.originX();
+        double originY = view.originY();
+        int[] counts = new int[width * height];
+        Point2D[] visible = new Point2D[pointLimit];
+        int visibleCount = 0;
+        for (int i = 0; i < points.length; i++) {
+            if ((i & INTERRUPT_CHECK_MASK) == INTERRUPT_CHECK_MASK && Thread.currentThread().isInterrupted()) {
+                throw new CancellationException("density raster interrupted");
+            }
+            Point2D point = points[i];
+            double viewX = (point.getX() - originX) * scale;
+            double viewY = height - (point.getY() - originY) * scale;
+            if (!(viewX >= -margin && viewX < width + margin && viewY >= -margin && viewY < height + margin)) {
+                continue;
+            }
+            if (visibleCount < pointLimit) {
+                visible[visibleCount] = point;
+            }
+            visibleCount++;
+            if (viewX >= 0 && viewX < width && viewY >= 0 && viewY < height) {
+                counts[(int) viewY * width + (int) viewX]++;
+            }
+        }
+        if (visibleCount <= pointLimit) {
+            return new Frame(view, width, height, null, Arrays.copyOf(visible, visibleCount));
+        }
+        return new Frame(view, width, height, shade(counts, width, height, color), null);
+    }
+
+    private static WritableImage shade(int[] counts, int width, int height, Color color) {
+        int max = 0;
+        for (int count : counts) {
+            max = Math.max(max, count);
+        }
+        int rgb = ((int) Math.round(color.getRed() * 255) << 16)
+                | ((int) Math.round(color.getGreen() * 255) << 8)
+                | (int) Math.round(color.getBlue() * 255);
+        // Alpha by log count keeps single points visible next to pixels holding millions.
+        double logMax = Math.log1p(max);
+        for (int i = 0; i < counts.length; i++) {
+            int count = counts[i];
+            if (count > 0) {
+                double alpha = MIN_ALPHA + (1 - MIN_ALPHA) * Math.log1p(count) / logMax;
+                counts[i] = ((int) Math.round(alpha * 255) << 24) | rgb;
+            }
+        }
+        WritableImage image = new WritableImage(width, height);
+        image.getPixelWriter().setPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), IntBuffer.wrap(counts), width);
+        return image;
+    }
+}
@@ -0,0 +1,28 @@
+package av.code.wicked.view;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event for a background hull preparation: the whole solve, including recording the step log
+ * that playback replays.
+ */
+@Name("av.code.wicked.HullPreparation")
+@Label("Hull Preparation")
+@Category({"Convex Hull", "Solver"})
+@Description("Solver work done before playback")
+final class HullPreparationEvent extends Event {
+
+    @Label("Point Count")
+    int pointCount;
+
+    @Label("Culled Count")
+    int culledCount;
+
+    @Label("Step Count")
+    @Description("Steps recorded in the prepared step log")
+    int stepCount;
+}
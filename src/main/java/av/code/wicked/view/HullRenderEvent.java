@@ -0,0 +1,30 @@
+package av.code.wicked.view;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event for rendering one played step: chain overlay, focus highlight and status text.
+ */
+@Name("av.code.wicked.HullRender")
+@Label("Hull Render")
+@Category({"Convex Hull", "Rendering"})
+@Description("Rendering of the hull state after a played step")
+final class HullRenderEvent extends Event {
+
+    @Label("Step Number")
+    @Description("Algorithm step number, as in the step description")
+    int stepNumber;
+
+    @Label("Action")
+    String action;
+
+    @Label("Upper Chain Size")
+    int upperSize;
+
+    @Label("Lower Chain Size")
+    int lowerSize;
+}
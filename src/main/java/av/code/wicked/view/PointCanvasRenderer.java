@@ -0,0 +1,397 @@
+package av.code.wicked.view;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import av.code.wicked.util.SpatialGridIndex;
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
+import javafx.concurrent.Task;
+import javafx.geometry.Point2D;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.Tooltip;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.util.Duration;
+
+/**
+ * Immediate-mode renderer for the point canvas. Points are painted onto one {@link Canvas} that is
+ * only repainted around the point that changed; hull polylines and the focus highlight live on a
+ * second, transparent canvas stacked above it, because they change on every animation step while
+ * the point cloud does not. Hover tooltips and removal use hit testing against a
+ * {@link SpatialGridIndex} instead of per-point nodes.
+ * <p>
+ * Above {@value #LOD_POINT_LIMIT} points the point layer switches to level of detail: a
+ * {@link DensityRaster} is computed on a virtual thread from a snapshot of the points, and while it
+ * runs the previous frame is reprojected to the current view. When few enough points are visible,
+ * for example after zooming in, the frame carries them and they are drawn individually again. Hull
+ * paths and the focus point are always drawn exactly, with hull vertices marked in density mode.
+ */
+public final class PointCanvasRenderer {
+
+    private static final Color COLOR_POINT = Color.DODGERBLUE;
+    private static final Color COLOR_HIGHLIGHT = Color.ORANGE;
+    private static final Color COLOR_POINT_STROKE = Color.WHITE;
+    private static final Color COLOR_UPPER = Color.CRIMSON;
+    private static final Color COLOR_LOWER = Color.LIMEGREEN;
+    private static final Color COLOR_FINAL = Color.BLUE;
+    private static final Color COLOR_LIVE = Color.SLATEGRAY;
+    private static final double POINT_STROKE_WIDTH = 1.5;
+    private static final double HULL_STROKE_WIDTH = 2;
+    private static final double TOOLTIP_OFFSET = 12;
+    private static final double VERTEX_MARK_SIZE = 4;
+    static final int LOD_POINT_LIMIT = 20_000;
+
+    private final Pane host;
+    private final CoordinateMapper mapper;
+    private final List<Point2D> points;
+    private final SpatialGridIndex pointIndex;
+    private final double pointRadius;
+    private final Canvas pointLayer = new Canvas();
+    private final Canvas overlayLayer = new Canvas();
+    private final Tooltip tooltip = new Tooltip();
+
+    private List<Point2D> upperChain = List.of();
+    private List<Point2D> lowerChain = List.of();
+    private List<Point2D> finalHull = List.of();
+    private List<Point2D> liveHull = List.of();
+    private Point2D focusPoint;
+    private Point2D hoveredPoint;
+
+    private Point2D[] snapshot;
+    private DensityRaster.Frame frame;
+    private Task<DensityRaster.Frame> densityTask;
+    private boolean densityStale;
+
+    public PointCanvasRenderer(Pane host, CoordinateMapper mapper, List<Point2D> points, SpatialGridIndex pointIndex, double pointRadius) {
+        this.host = Objects.requireNonNull(host, "host");
+        this.mapper = Objects.requireNonNull(mapper, "mapper");
+        this.points = Objects.requireNonNull(points, "points");
+        this.pointIndex = Objects.requireNonNull(pointIndex, "pointIndex");
+        this.pointRadius = pointRadius;
+        overlayLayer.setMouseTransparent(true);
+        pointLayer.widthProperty().bind(host.widthProperty());
+        pointLayer.heightProperty().bind(host.heightProperty());
+        overlayLayer.widthProperty().bind(host.widthProperty());
+        overlayLayer.heightProperty().bind(host.heightProperty());
+        pointLayer.widthProperty().addListener((obs, oldVal, newVal) -> redraw());
+        pointLayer.heightProperty().addListener((obs, oldVal, newVal) -> redraw());
+        mapper.viewProperty().addListener((obs, oldView, newView) -> redraw());
+        if (points instanceof Observable observable) {
+            observable.addListener((InvalidationListener) obs -> snapshot = null);
+        }
+        host.getChildren().addAll(pointLayer, overlayLayer);
+        installHoverTooltip();
+    }
+
+    // Point layer ----------------------------------------------------------
+
+    public void pointAdded(Point2D modelPoint) {
+        boolean crossed = points.size() == LOD_POINT_LIMIT + 1;
+        if (isLevelOfDetail() && !crossed) {
+            requestDensityFrame();
+            return;
+        }
+        GraphicsContext gc = pointLayer.getGraphicsContext2D();
+        Point2D view = mapper.toView(modelPoint);
+        drawPoint(gc, view.getX(), view.getY(), COLOR_POINT);
+        if (crossed) {
+            // The exact points stay on screen until the first density frame replaces them.
+            requestDensityFrame();
+        }
+    }
+
+    public void pointRemoved(Point2D modelPoint) {
+        if (modelPoint.equals(hoveredPoint)) {
+            hideTooltip();
+        }
+        if (isLevelOfDetail()) {
+            requestDensityFrame();
+            return;
+        }
+        if (frame != null || densityTask != null) {
+            // Just dropped to the limit: replace the density frame with every point.
+            redrawPoints();
+            redrawOverlay();
+            return;
+        }
+        Point2D view = mapper.toView(modelPoint);
+        double extent = pointRadius + POINT_STROKE_WIDTH;
+        redrawPointRegion(view.getX() - extent, view.getY() - extent, 2 * extent, 2 * extent);
+    }
+
+    public void redrawPoints() {
+        if (!isLevelOfDetail()) {
+            cancelDensityFrame();
+            frame = null;
+            drawPoints(points);
+            return;
+        }
+        paintFrame();
+        requestDensityFrame();
+    }
+
+    /**
+     * Whether the point layer shows density frames rather than every point.
+     */
+    public boolean isLevelOfDetail() {
+        return points.size() > LOD_POINT_LIMIT;
+    }
+
+    private void drawPoints(Iterable<Point2D> visible) {
+        GraphicsContext gc = pointLayer.getGraphicsContext2D();
+        double width = pointLayer.getWidth();
+        double height = pointLayer.getHeight();
+        double extent = pointRadius + POINT_STROKE_WIDTH;
+        gc.clearRect(0, 0, width, height);
+        for (Point2D point : visible) {
+            double viewX = mapper.toViewX(point.getX());
+            double viewY = mapper.toViewY(point.getY());
+            if (viewX >= -extent && viewX <= width + extent && viewY >= -extent && viewY <= height + extent) {
+                drawPoint(gc, viewX, viewY, COLOR_POINT);
+            }
+        }
+    }
+
+    /**
+     * Paints the latest density frame, reprojected from the view it was computed for.
+     */
+    private void paintFrame() {
+        if (frame == null) {
+            pointLayer.getGraphicsContext2D().clearRect(0, 0, pointLayer.getWidth(), pointLayer.getHeight());
+            return;
+        }
+        if (frame.image() == null) {
+            drawPoints(Arrays.asList(frame.visiblePoints()));
+            return;
+        }
+        GraphicsContext gc = pointLayer.getGraphicsContext2D();
+        gc.clearRect(0, 0, pointLayer.getWidth(), pointLayer.getHeight());
+        CoordinateMapper.View from = frame.view();
+        CoordinateMapper.View to = mapper.getView();
+        double ratio = to.scale() / from.scale();
+        double x = (from.originX() - to.originX()) * to.scale();
+        double y = pointLayer.getHeight() - frame.height() * ratio - (from.originY() - to.originY()) * to.scale();
+        gc.drawImage(frame.image(), x, y, frame.width() * ratio, frame.height() * ratio);
+    }
+
+    /**
+     * Starts a density frame for the current view, or marks the running one stale so a single
+     * follow-up runs when it finishes; a burst of zoom or pan events costs at most two frames.
+     */
+    private void requestDensityFrame() {
+        if (densityTask != null) {
+            densityStale = true;
+            return;
+        }
+        int width = (int) Math.ceil(pointLayer.getWidth());
+        int height = (int) Math.ceil(pointLayer.getHeight());
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        if (snapshot == null) {
+            snapshot = points.toArray(new Point2D[0]);
+        }
+        Point2D[] source = snapshot;
+        CoordinateMapper.View view = mapper.getView();
+        double margin = pointRadius + POINT_STROKE_WIDTH;
+        Task<DensityRaster.Frame> task = new Task<>() {
+            @Override
+            protected DensityRaster.Frame call() {
+                return DensityRaster.render(source, view, width, height, margin, LOD_POINT_LIMIT, COLOR_POINT);
+            }
+        };
+        task.setOnSucceeded(event -> densityFrameDone(task, task.getValue()));
+        task.setOnFailed(event -> densityFrameDone(task, null));
+        densityStale = false;
+        densityTask = task;
+        Thread.ofVirtual().name("density-raster").start(task);
+    }
+
+    private void densityFrameDone(Task<DensityRaster.Frame> task, DensityRaster.Frame result) {
+        if (task != densityTask) {
+            return;
+        }
+        densityTask = null;
+        if (result != null && isLevelOfDetail()) {
+            frame = result;
+            paintFrame();
+            redrawOverlay();
+        }
+        if (densityStale && isLevelOfDetail()) {
+            requestDensityFrame();
+        }
+    }
+
+    private void cancelDensityFrame() {
+        if (densityTask != null) {
+            densityTask.cancel(true);
+            densityTask = null;
+        }
+        densityStale = false;
+    }
+
+    private boolean showsDensity() {
+        return frame != null && frame.image() != null;
+    }
+
+    private void redrawPointRegion(double x, double y, double width, double height) {
+        GraphicsContext gc = pointLayer.getGraphicsContext2D();
+        gc.save();
+        gc.beginPath();
+        gc.rect(x, y, width, height);
+        gc.clip();
+        gc.clearRect(x, y, width, height);
+        double extent = pointRadius + POINT_STROKE_WIDTH;
+        double modelLeft = mapper.toModelX(x - extent);
+        double modelRight = mapper.toModelX(x + width + extent);
+        double modelTop = mapper.toModelY(y - extent);
+        double modelBottom = mapper.toModelY(y + height + extent);
+        pointIndex.forEachInRange(modelLeft, Math.min(modelTop, modelBottom), modelRight, Math.max(modelTop, modelBottom),
+                point -> drawPoint(gc, mapper.toViewX(point.getX()), mapper.toViewY(point.getY()), COLOR_POINT));
+        gc.restore();
+    }
+
+    private void drawPoint(GraphicsContext gc, double viewX, double viewY, Color fill) {
+        double diameter = 2 * pointRadius;
+        gc.setFill(fill);
+        gc.fillOval(viewX - pointRadius, viewY - pointRadius, diameter, diameter);
+        gc.setStroke(COLOR_POINT_STROKE);
+        gc.setLineWidth(POINT_STROKE_WIDTH);
+        gc.strokeOval(viewX - pointRadius, viewY - pointRadius, diameter, diameter);
+    }
+
+    // Overlay layer --------------------------------------------------------
+
+    public void setChains(List<Point2D> upper, List<Point2D> lower) {
+        this.upperChain = upper != null ? upper : List.of();
+        this.lowerChain = lower != null ? lower : List.of();
+    }
+
+    public void setFinalHull(List<Point2D> hull) {
+        this.finalHull = hull != null ? hull : List.of();
+    }
+
+    public void setLiveHull(List<Point2D> hull) {
+        this.liveHull = hull != null ? hull : List.of();
+    }
+
+    public void setFocusPoint(Point2D modelPoint) {
+        this.focusPoint = modelPoint;
+    }
+
+    public void clearHull() {
+        setChains(List.of(), List.of());
+        setFinalHull(List.of());
+        setFocusPoint(null);
+    }
+
+    public void redrawOverlay() {
+        GraphicsContext gc = overlayLayer.getGraphicsContext2D();
+        gc.clearRect(0, 0, overlayLayer.getWidth(), overlayLayer.getHeight());
+        gc.setLineWidth(HULL_STROKE_WIDTH);
+        gc.setLineDashes();
+        strokePath(gc, upperChain, COLOR_UPPER, false);
+        strokePath(gc, lowerChain, COLOR_LOWER, false);
+        strokePath(gc, finalHull, COLOR_FINAL, true);
+        gc.setLineDashes(6, 4);
+        strokePath(gc, liveHull, COLOR_LIVE, true);
+        gc.setLineDashes();
+        if (showsDensity()) {
+            markVertices(gc, upperChain, COLOR_UPPER);
+            markVertices(gc, lowerChain, COLOR_LOWER);
+            markVertices(gc, finalHull, COLOR_FINAL);
+            markVertices(gc, liveHull, COLOR_LIVE);
+        }
+        if (focusPoint != null) {
+            Point2D view = mapper.toView(focusPoint);
+            drawPoint(gc, view.getX(), view.getY(), COLOR_HIGHLIGHT);
+        }
+    }
+
+    private void strokePath(GraphicsContext gc, List<Point2D> path, Color stroke, boolean closed) {
+        if (path.size() < 2) {
+            return;
+        }
+        gc.setStroke(stroke);
+        gc.beginPath();
+        Point2D first = path.get(0);
+        gc.moveTo(mapper.toViewX(first.getX()), mapper.toViewY(first.getY()));
+        for (int i = 1; i < path.size(); i++) {
+            Point2D point = path.get(i);
+            gc.lineTo(mapper.toViewX(point.getX()), mapper.toViewY(point.getY()));
+        }
+        if (closed) {
+            gc.closePath();
+        }
+        gc.stroke();
+    }
+
+    private void markVertices(GraphicsContext gc, List<Point2D> path, Color fill) {
+        gc.setFill(fill);
+        double half = VERTEX_MARK_SIZE / 2;
+        for (Point2D point : path) {
+            gc.fillRect(mapper.toViewX(point.getX()) - half, mapper.toViewY(point.getY()) - half, VERTEX_MARK_SIZE, VERTEX_MARK_SIZE);
+        }
+    }
+
+    public void redraw() {
+        redrawPoints();
+        redrawOverlay();
+    }
+
+    // Hit testing ----------------------------------------------------------
+
+    /**
+     * Returns the model point closest to the given view coordinates within {@code radius}, or
+     * {@code null} when no point is that close. The radius is in pixels. In level-of-detail mode
+     * only individually drawn points can be hit.
+     */
+    public Point2D hitTest(double viewX, double viewY, double radius) {
+        double modelX = mapper.toModelX(viewX);
+        double modelY = mapper.toModelY(viewY);
+        double modelRadius = radius / mapper.getScale();
+        if (!isLevelOfDetail()) {
+            return pointIndex.nearest(modelX, modelY, modelRadius);
+        }
+        if (frame == null || frame.visiblePoints() == null) {
+            return null;
+        }
+        Point2D nearest = null;
+        double bestDistanceSq = modelRadius * modelRadius;
+        for (Point2D point : frame.visiblePoints()) {
+            double dx = point.getX() - modelX;
+            double dy = point.getY() - modelY;
+            double distanceSq = dx * dx + dy * dy;
+            if (distanceSq <= bestDistanceSq) {
+                bestDistanceSq = distanceSq;
+                nearest = point;
+            }
+        }
+        return nearest;
+    }
+
+    private void installHoverTooltip() {
+        tooltip.setShowDelay(Duration.ZERO);
+        tooltip.setHideDelay(Duration.millis(100));
+        host.addEventHandler(MouseEvent.MOUSE_MOVED, event -> {
+            Point2D hit = hitTest(event.getX(), event.getY(), pointRadius);
+            if (hit == null) {
+                hideTooltip();
+            } else if (!hit.equals(hoveredPoint)) {
+                hoveredPoint = hit;
+                tooltip.setText(String.format("(%.1f, %.1f)", hit.getX(), hit.getY()));
+                tooltip.show(host, event.getScreenX() + TOOLTIP_OFFSET, event.getScreenY() + TOOLTIP_OFFSET);
+            }
+        });
+        host.addEventHandler(MouseEvent.MOUSE_EXITED, event -> hideTooltip());
+    }
+
+    private void hideTooltip() {
+        hoveredPoint = null;
+        tooltip.hide();
+    }
+}
@@ -1,19 +1,41 @@
 package av.code.wicked.view;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
 
 import av.code.wicked.App;
+import av.code.wicked.io.PointFeed;
+import av.code.wicked.io.PointSetFile;
 import av.code.wicked.util.RandomPointGenerator;
+import av.code.wicked.util.SpatialGridIndex;
+import av.code.wicked.model.AutoHullSolver;
+import av.code.wicked.model.ChanHull;
+import av.code.wicked.model.DynamicConvexHull;
+import av.code.wicked.model.HullCache;
 import av.code.wicked.model.HullAction;
 import av.code.wicked.model.HullAnimationController;
+import av.code.wicked.model.HullChainState;
+import av.code.wicked.model.HullMetrics;
+import av.code.wicked.model.HullMetricsListener;
+import av.code.wicked.model.HullSolver;
 import av.code.wicked.model.HullStep;
 import av.code.wicked.model.MonotoneChainHull;
-import javafx.beans.value.ChangeListener;
+import av.code.wicked.model.PointSetHistory;
+import av.code.wicked.model.PreparedHull;
+import av.code.wicked.model.QuickHull;
+import av.code.wicked.model.SlidingWindowHull;
+import av.code.wicked.model.StepLog;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
+import javafx.concurrent.Task;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -21,45 +43,72 @@ import javafx.geometry.Point2D;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
+import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
-import javafx.scene.control.Tooltip;
+import javafx.scene.control.Slider;
+import javafx.scene.control.TextInputDialog;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyCodeCombination;
+import javafx.scene.input.KeyCombination;
+import javafx.scene.control.ToggleButton;
 import javafx.scene.input.MouseButton;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.Pane;
 import javafx.scene.layout.StackPane;
-import javafx.scene.paint.Color;
-import javafx.scene.shape.Circle;
-import javafx.scene.shape.Polyline;
+import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 import javafx.util.Duration;
+import javafx.util.StringConverter;
 
 /**
- * Primary JavaFX controller: bootstraps the stage, captures user input, invokes
- * {@link MonotoneChainHull} to produce {@link HullStep}s, and delegates playback to
+ * Primary JavaFX controller: bootstraps the stage, captures user input, invokes the selected
+ * {@link HullSolver} to produce {@link HullStep}s, and delegates playback to
  * {@link HullAnimationController} so the canvas can visualize the convex model evolution.
+ * Drawing is delegated to {@link PointCanvasRenderer}.
  */
 public class UIController {
     private static final int RANDOM_POINT_COUNT = 25;
     private static final double POINT_RADIUS = 4.0;
     private static final Duration ANIMATION_INTERVAL = Duration.millis(600);
-    private static final Color COLOR_POINT = Color.DODGERBLUE;
-    private static final Color COLOR_HIGHLIGHT = Color.ORANGE;
+    private static final double ZOOM_PER_SCROLL_PIXEL = 0.005;
+    private static final double FIT_MARGIN = 24;
+    private static final int FEED_WINDOW_POINTS = 5_000;
+    private static final long FEED_WINDOW_NANOS = 30_000_000_000L;
+    private static final String DEFAULT_FEED_SOURCE = "5555";
+    private static final long HULL_CACHE_BYTES = 64L << 20;
+    private static final int HISTORY_LIMIT = 1_000;
 
     private final Stage stage;
     private final ObservableList<Point2D> points = FXCollections.observableArrayList();
     private final RandomPointGenerator pointGenerator = new RandomPointGenerator();
-    private final Map<Point2D, Circle> pointNodes = new HashMap<>();
-    private final MonotoneChainHull hullSolver = new MonotoneChainHull();
+    private final List<HullSolver> hullSolvers = List.of(
+            new AutoHullSolver(), new MonotoneChainHull(), new QuickHull(), new ChanHull());
+    private final DynamicConvexHull liveHull = new DynamicConvexHull();
+    private final HullCache hullCache = new HullCache(HULL_CACHE_BYTES);
+    private final PointSetHistory pointHistory = new PointSetHistory(HISTORY_LIMIT);
+    private final SpatialGridIndex pointIndex = new SpatialGridIndex(POINT_RADIUS * 4);
     private final CoordinateMapper coordinateMapper = new CoordinateMapper();
-    private final ChangeListener<Number> canvasResizeListener = (obs, oldVal, newVal) -> refreshViewProjection();
+    private final SlidingWindowHull feedWindow = new SlidingWindowHull(FEED_WINDOW_POINTS, FEED_WINDOW_NANOS);
+    private final ConcurrentLinkedQueue<FeedPoint> feedQueue = new ConcurrentLinkedQueue<>();
+    private final List<Point2D> feedBatch = new ArrayList<>();
+    private final AnimationTimer feedPump = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            drainFeed(now);
+        }
+    };
 
+    private HullSolver hullSolver = hullSolvers.get(0);
+    private HullMetricsListener statsListener;
     private HullAnimationController animationController;
-    private Polyline upperHullLine;
-    private Polyline lowerHullLine;
-    private Polyline finalHullLine;
-    private Circle highlightedPoint;
-    private Color highlightedPointBaseColor;
-    private HullStep lastRenderedStep;
+    private PointCanvasRenderer pointRenderer;
+    private boolean hullPrepared;
+    private Task<PreparedHull> preparationTask;
+    private Task<StepLog.Position> seekTask;
+    private int pendingSeek = -1;
+    private PointFeed pointFeed;
+    private boolean updatingScrubber;
 
     @FXML private BorderPane canvasViewport;
     @FXML private Pane pointCanvas;
@@ -70,12 +119,26 @@ public class UIController {
     @FXML private Pane topSpacer;
     @FXML private Pane rightSpacer;
     @FXML private AxisOverlay axisOverlay;
+    @FXML private Button fitViewButton;
+    @FXML private ToggleButton feedToggle;
+    @FXML private ToggleButton statsToggle;
+    @FXML private VBox statsPanel;
+    @FXML private Label statsLabel;
+    @FXML private Label cacheStatsLabel;
+    @FXML private Button undoButton;
+    @FXML private Button redoButton;
     @FXML private Button clearButton;
     @FXML private Button randomPointsButton;
+    @FXML private ComboBox<HullSolver> solverChoice;
     @FXML private Button computeButton;
+    @FXML private Button saveButton;
+    @FXML private Button loadButton;
     @FXML private Button playPauseButton;
     @FXML private Button stepButton;
     @FXML private Button resetButton;
+    @FXML private Slider scrubber;
+    @FXML private Slider speedSlider;
+    @FXML private Label speedLabel;
     @FXML private Label statusLabel;
 
     // Stage bootstrap ------------------------------------------------------
@@ -101,7 +164,11 @@ public class UIController {
     }
 
     private Scene buildScene(Parent root) {
-        return new Scene(root, 1280, 720);
+        Scene scene = new Scene(root, 1280, 720);
+        scene.getAccelerators().put(new KeyCodeCombination(KeyCode.Z, KeyCombination.SHORTCUT_DOWN), this::undoEdit);
+        scene.getAccelerators().put(new KeyCodeCombination(KeyCode.Z, KeyCombination.SHORTCUT_DOWN, KeyCombination.SHIFT_DOWN), this::redoEdit);
+        scene.getAccelerators().put(new KeyCodeCombination(KeyCode.Y, KeyCombination.SHORTCUT_DOWN), this::redoEdit);
+        return scene;
     }
 
     private void showStage(Scene scene) {
@@ -117,9 +184,10 @@ public class UIController {
         configureCanvasInfrastructure();
         wireCanvasClicks();
         wireControlButtons();
-        initializeHullLayers();
+        initializeRenderer();
         initializeAnimationController();
         disableTransportControls();
+        updateHistoryControls();
         updateStatus("Ready.");
     }
 
@@ -128,8 +196,6 @@ public class UIController {
             return;
         }
         coordinateMapper.bindTo(pointCanvas.widthProperty(), pointCanvas.heightProperty());
-        pointCanvas.widthProperty().addListener(canvasResizeListener);
-        pointCanvas.heightProperty().addListener(canvasResizeListener);
         if (verticalAxisStrip != null && horizontalAxisPadding != null) {
             horizontalAxisPadding.prefWidthProperty().bind(verticalAxisStrip.widthProperty());
         }
@@ -149,14 +215,39 @@ public class UIController {
             }
             axisOverlay.configure(coordinateMapper, verticalAxisStrip, horizontalAxisStrip);
         }
-        refreshViewProjection();
     }
 
     private void wireCanvasClicks() {
         if (pointCanvas == null) {
             return;
         }
+        double[] dragOrigin = new double[2];
+        pointCanvas.setOnMousePressed(event -> {
+            dragOrigin[0] = event.getX();
+            dragOrigin[1] = event.getY();
+        });
+        pointCanvas.setOnMouseDragged(event -> {
+            if (event.getButton() != MouseButton.PRIMARY) {
+                return;
+            }
+            coordinateMapper.pan(event.getX() - dragOrigin[0], event.getY() - dragOrigin[1]);
+            dragOrigin[0] = event.getX();
+            dragOrigin[1] = event.getY();
+        });
+        pointCanvas.setOnScroll(event -> {
+            if (event.getDeltaY() != 0) {
+                coordinateMapper.zoom(Math.exp(event.getDeltaY() * ZOOM_PER_SCROLL_PIXEL), event.getX(), event.getY());
+            }
+        });
         pointCanvas.setOnMouseClicked(event -> {
+            if (!event.isStillSincePress()) {
+                // The press ended a pan.
+                return;
+            }
+            if (pointFeed != null) {
+                updateStatus("Stop the live feed to edit points.");
+                return;
+            }
             if (event.getButton() == MouseButton.PRIMARY) {
                 addPoint(event.getX(), event.getY());
                 invalidateHullAnimation("Point added. Prepare model again.");
@@ -167,6 +258,27 @@ public class UIController {
     }
 
     private void wireControlButtons() {
+        if (fitViewButton != null) {
+            fitViewButton.setOnAction(event -> fitView());
+        }
+        if (feedToggle != null) {
+            feedToggle.setOnAction(event -> {
+                if (feedToggle.isSelected()) {
+                    startFeed();
+                } else {
+                    stopFeed("Live feed stopped. Kept " + points.size() + " points.");
+                }
+            });
+        }
+        if (statsToggle != null) {
+            statsToggle.selectedProperty().addListener((obs, oldVal, newVal) -> showStats(newVal));
+        }
+        if (undoButton != null) {
+            undoButton.setOnAction(event -> undoEdit());
+        }
+        if (redoButton != null) {
+            redoButton.setOnAction(event -> redoEdit());
+        }
         if (clearButton != null) {
             clearButton.setOnAction(event -> clearAllPoints());
         }
@@ -176,9 +288,31 @@ public class UIController {
                 invalidateHullAnimation("Random points added. Prepare model again.");
             });
         }
+        if (solverChoice != null) {
+            solverChoice.setConverter(new StringConverter<>() {
+                @Override
+                public String toString(HullSolver solver) {
+                    return solver == null ? "" : solver.name();
+                }
+
+                @Override
+                public HullSolver fromString(String name) {
+                    return hullSolvers.stream().filter(solver -> solver.name().equals(name)).findFirst().orElse(null);
+                }
+            });
+            solverChoice.getItems().setAll(hullSolvers);
+            solverChoice.setValue(hullSolver);
+            solverChoice.valueProperty().addListener((obs, oldVal, newVal) -> selectSolver(newVal));
+        }
         if (computeButton != null) {
             computeButton.setOnAction(event -> prepareHullAnimation());
         }
+        if (saveButton != null) {
+            saveButton.setOnAction(event -> savePointSet());
+        }
+        if (loadButton != null) {
+            loadButton.setOnAction(event -> loadPointSet());
+        }
         if (playPauseButton != null) {
             playPauseButton.setOnAction(event -> togglePlayPause());
         }
@@ -188,28 +322,38 @@ public class UIController {
         if (resetButton != null) {
             resetButton.setOnAction(event -> resetAnimation());
         }
+        if (scrubber != null) {
+            scrubber.valueProperty().addListener((obs, oldVal, newVal) -> scrubTo(newVal.intValue()));
+        }
     }
 
-    private void initializeHullLayers() {
-        if (pointCanvas == null) {
+    private void selectSolver(HullSolver solver) {
+        if (solver == null || solver == hullSolver) {
             return;
         }
-        removeExistingHullLines();
-        upperHullLine = createHullPolyline(Color.CRIMSON);
-        lowerHullLine = createHullPolyline(Color.LIMEGREEN);
-        finalHullLine = createHullPolyline(Color.BLUE);
+        hullSolver.setMetricsListener(null);
+        hullSolver = solver;
+        hullSolver.setMetricsListener(statsListener);
+        invalidateHullAnimation("Using " + solver.name() + " solver. Prepare model again.");
+    }
+
+    private void setPlaybackSpeed(double stepsPerSecond) {
+        animationController.setStepsPerSecond(stepsPerSecond);
+        updateSpeedLabel();
     }
 
-    private Polyline createHullPolyline(Color stroke) {
-        Polyline line = new Polyline();
-        line.setStroke(stroke);
-        line.setStrokeWidth(2);
-        pointCanvas.getChildren().add(line);
-        return line;
+    private void updateSpeedLabel() {
+        if (speedLabel != null) {
+            double speed = animationController.getStepsPerSecond();
+            speedLabel.setText(speed < 10 ? String.format("%.1f steps/s", speed) : String.format("%,.0f steps/s", speed));
+        }
     }
 
-    private void removeExistingHullLines() {
-        pointCanvas.getChildren().removeAll(upperHullLine, lowerHullLine, finalHullLine);
+    private void initializeRenderer() {
+        if (pointCanvas == null) {
+            return;
+        }
+        pointRenderer = new PointCanvasRenderer(pointCanvas, coordinateMapper, points, pointIndex, POINT_RADIUS);
     }
 
     // Animation orchestration ----------------------------------------------
@@ -223,22 +367,95 @@ public class UIController {
             stepButton.setDisable(true);
             updateStatus("Hull complete. Press Replay or Reset.");
         });
+        if (speedSlider != null) {
+            // The slider is logarithmic so one drag spans single steps to thousands per second.
+            speedSlider.setValue(Math.log10(animationController.getStepsPerSecond()));
+            speedSlider.valueProperty().addListener((obs, oldVal, newVal) -> setPlaybackSpeed(Math.pow(10, newVal.doubleValue())));
+            updateSpeedLabel();
+        }
     }
 
+    /**
+     * Computes the hull and its step log for a snapshot of the points on a virtual thread so the
+     * canvas keeps rendering; playback then only decodes the log. Any edit cancels a running
+     * preparation.
+     * Point sets prepared before with the same solver are taken from {@link #hullCache} at once.
+     */
     private void prepareHullAnimation() {
         if (points.size() < 3) {
             updateStatus("Need at least 3 points to compute a convex model.");
             return;
         }
-        animationController.loadSteps(calculateHullSteps());
+        cancelHullPreparation();
+        List<Point2D> snapshot = List.copyOf(points);
+        HullSolver solver = hullSolver;
+        HullCache.Key key = HullCache.key(solver.name(), snapshot);
+        PreparedHull cached = hullCache.get(key);
+        renderCacheStats();
+        if (cached != null) {
+            // The cached result was prepared under whatever listener was installed then.
+            if (statsListener != null) {
+                renderStats(cached.metrics());
+            }
+            loadPreparedHull(cached);
+            updateStatus("Hull and steps loaded from cache. Press Play or Step.");
+            return;
+        }
+        Task<PreparedHull> task = new Task<>() {
+            @Override
+            protected PreparedHull call() {
+                HullPreparationEvent event = new HullPreparationEvent();
+                event.begin();
+                PreparedHull prepared = solver.prepare(snapshot, fraction -> updateProgress(fraction, 1));
+                event.pointCount = prepared.inputCount();
+                event.culledCount = prepared.culledCount();
+                event.stepCount = prepared.stepCount();
+                event.commit();
+                return prepared;
+            }
+        };
+        task.progressProperty().addListener((obs, oldVal, newVal) -> {
+            if (task == preparationTask) {
+                updateStatus(String.format("Preparing hull for %d points... %.0f%%", snapshot.size(), newVal.doubleValue() * 100));
+            }
+        });
+        task.setOnSucceeded(event -> {
+            if (task != preparationTask) {
+                return;
+            }
+            preparationTask = null;
+            PreparedHull prepared = task.getValue();
+            hullCache.put(key, prepared);
+            renderCacheStats();
+            loadPreparedHull(prepared);
+            updateStatus("Hull prepared. Press Play or Step.");
+        });
+        task.setOnFailed(event -> {
+            if (task == preparationTask) {
+                preparationTask = null;
+                updateStatus("Hull preparation failed: " + task.getException().getMessage());
+            }
+        });
+        preparationTask = task;
+        updateStatus("Preparing hull for " + snapshot.size() + " points...");
+        Thread.ofVirtual().name("hull-preparation").start(task);
+    }
+
+    private void loadPreparedHull(PreparedHull prepared) {
+        hullPrepared = true;
+        clearLiveHull();
+        cancelSeek();
+        animationController.loadSteps(prepared.stepLog());
         enableTransportControls();
         playPauseButton.setText("Play");
         stepButton.setDisable(false);
-        updateStatus("Hull prepared. Press Play or Step.");
     }
 
-    private List<HullStep> calculateHullSteps() {
-        return hullSolver.compute(points);
+    private void cancelHullPreparation() {
+        if (preparationTask != null) {
+            preparationTask.cancel(true);
+            preparationTask = null;
+        }
     }
 
     private void togglePlayPause() {
@@ -270,109 +487,262 @@ public class UIController {
         if (resetButton.isDisable()) {
             return;
         }
+        cancelSeek();
         animationController.reset();
         playPauseButton.setText("Play");
         stepButton.setDisable(false);
         resetHullVisualization();
-        resetPointColors();
         updateStatus("Animation reset.");
     }
 
+    /**
+     * Seeks when the user moves the scrubber; programmatic updates from playback are ignored.
+     * Short forward jumps are replayed here; others restore a checkpoint of the step log on a
+     * virtual thread. While one such seek runs, further scrubbing only records the latest target.
+     */
+    private void scrubTo(int stepIndex) {
+        if (updatingScrubber || !animationController.hasSteps()) {
+            return;
+        }
+        if (seekTask != null) {
+            pendingSeek = stepIndex;
+            return;
+        }
+        if (stepIndex == animationController.position()) {
+            return;
+        }
+        if (animationController.isNearby(stepIndex)) {
+            animationController.seek(stepIndex);
+            seekApplied();
+            return;
+        }
+        StepLog log = animationController.stepLog();
+        Task<StepLog.Position> task = new Task<>() {
+            @Override
+            protected StepLog.Position call() {
+                return log.seek(stepIndex);
+            }
+        };
+        task.setOnSucceeded(event -> {
+            if (task == seekTask) {
+                seekTask = null;
+                animationController.moveTo(task.getValue());
+                seekApplied();
+                seekPending();
+            }
+        });
+        task.setOnFailed(event -> {
+            if (task == seekTask) {
+                seekTask = null;
+                updateStatus("Seek failed: " + task.getException().getMessage());
+                seekPending();
+            }
+        });
+        seekTask = task;
+        Thread.ofVirtual().name("step-seek").start(task);
+    }
+
+    private void seekPending() {
+        int stepIndex = pendingSeek;
+        pendingSeek = -1;
+        if (stepIndex >= 0) {
+            scrubTo(stepIndex);
+        }
+    }
+
+    private void seekApplied() {
+        if (!animationController.isPlaying()) {
+            playPauseButton.setText("Play");
+            stepButton.setDisable(false);
+        }
+    }
+
+    /**
+     * Drops a running seek and any target queued behind it, e.g. when steps are reloaded.
+     */
+    private void cancelSeek() {
+        seekTask = null;
+        pendingSeek = -1;
+    }
+
+    private void syncScrubber() {
+        if (scrubber == null) {
+            return;
+        }
+        updatingScrubber = true;
+        scrubber.setMax(Math.max(animationController.stepCount() - 1, 0));
+        scrubber.setValue(Math.max(animationController.position(), 0));
+        updatingScrubber = false;
+    }
+
     private void applyHullStep(HullStep step) {
-        lastRenderedStep = step;
+        HullRenderEvent event = new HullRenderEvent();
+        event.begin();
+        syncScrubber();
         renderHull(step);
         highlightFocusPoint(step.focusPoint());
-        updateStatus("Step " + step.stepNumber() + ": " + step.description());
+        updateStatus("Step " + step.stepNumber() + ": " + describeStep(step));
+        if (event.shouldCommit()) {
+            HullChainState state = animationController.chainState();
+            event.stepNumber = step.stepNumber();
+            event.action = step.action().name();
+            event.upperSize = state.upperHull().size();
+            event.lowerSize = state.lowerHull().size();
+            event.commit();
+        }
     }
 
     private void renderHull(HullStep step) {
-        if (upperHullLine == null || lowerHullLine == null || finalHullLine == null || step == null) {
+        if (pointRenderer == null || step == null) {
             return;
         }
-
-        populatePolyline(upperHullLine, step.upperHull());
-        populatePolyline(lowerHullLine, step.lowerHull());
-
-        finalHullLine.getPoints().clear();
+        HullChainState state = animationController.chainState();
+        pointRenderer.setChains(state.upperHull(), state.lowerHull());
         if (step.action() == HullAction.FINALIZED) {
-            List<Point2D> finalPath = new ArrayList<>(step.upperHull());
-            if (!step.lowerHull().isEmpty()) {
-                finalPath.addAll(step.lowerHull());
-            }
-            if (!finalPath.isEmpty()) {
-                populatePolyline(finalHullLine, finalPath);
-                if (finalPath.size() > 1) {
-                    Point2D firstView = coordinateMapper.toView(finalPath.get(0));
-                    finalHullLine.getPoints().addAll(firstView.getX(), firstView.getY());
-                }
-            }
+            List<Point2D> finalPath = new ArrayList<>(state.upperHull());
+            finalPath.addAll(state.lowerHull());
+            pointRenderer.setFinalHull(finalPath);
+        } else {
+            pointRenderer.setFinalHull(List.of());
         }
+        pointRenderer.redrawOverlay();
+    }
 
-        pointCanvas.getChildren().removeAll(upperHullLine, lowerHullLine, finalHullLine);
-        pointCanvas.getChildren().addAll(upperHullLine, lowerHullLine, finalHullLine);
+    /**
+     * Shows the hull maintained incrementally by {@link DynamicConvexHull} while the user edits
+     * points and no step animation is prepared.
+     */
+    private void renderLiveHull() {
+        if (pointRenderer == null || hullPrepared) {
+            return;
+        }
+        pointRenderer.setLiveHull(pointFeed != null ? feedWindow.hull() : liveHull.hull());
+        pointRenderer.redrawOverlay();
     }
 
-    private void populatePolyline(Polyline polyline, List<Point2D> path) {
-        List<Double> coordinates = polyline.getPoints();
-        coordinates.clear();
-        path.forEach(point -> {
-            Point2D viewPoint = coordinateMapper.toView(point);
-            coordinates.add(viewPoint.getX());
-            coordinates.add(viewPoint.getY());
-        });
+    private void clearLiveHull() {
+        if (pointRenderer != null) {
+            pointRenderer.setLiveHull(List.of());
+            pointRenderer.redrawOverlay();
+        }
     }
 
     private void highlightFocusPoint(Point2D modelPoint) {
-        if (highlightedPoint != null) {
-            highlightedPoint.setFill(highlightedPointBaseColor != null ? highlightedPointBaseColor : COLOR_POINT);
-            highlightedPoint = null;
-            highlightedPointBaseColor = null;
-        }
-        if (modelPoint == null) {
-            return;
-        }
-        Circle circle = pointNodes.get(modelPoint);
-        if (circle != null) {
-            highlightedPoint = circle;
-            highlightedPointBaseColor = (Color) circle.getFill();
-            circle.setFill(COLOR_HIGHLIGHT);
+        if (pointRenderer != null) {
+            pointRenderer.setFocusPoint(modelPoint);
+            pointRenderer.redrawOverlay();
         }
     }
 
     private void resetHullVisualization() {
-        if (upperHullLine != null) {
-            upperHullLine.getPoints().clear();
+        syncScrubber();
+        if (pointRenderer != null) {
+            pointRenderer.clearHull();
+            pointRenderer.redrawOverlay();
         }
-        if (lowerHullLine != null) {
-            lowerHullLine.getPoints().clear();
+    }
+
+    // Solver metrics -------------------------------------------------------
+
+    /**
+     * Instrumentation is only installed while the panel is shown, so hidden stats cost nothing.
+     */
+    private void showStats(boolean show) {
+        if (statsPanel != null) {
+            statsPanel.setVisible(show);
+            statsPanel.setManaged(show);
         }
-        if (finalHullLine != null) {
-            finalHullLine.getPoints().clear();
+        // Passes may complete on the preparation thread.
+        statsListener = show ? metrics -> Platform.runLater(() -> renderStats(metrics)) : null;
+        hullSolver.setMetricsListener(statsListener);
+        if (show && statsLabel != null) {
+            statsLabel.setText("Prepare the hull to collect metrics.");
         }
-        lastRenderedStep = null;
-        highlightFocusPoint(null);
+        renderCacheStats();
     }
 
-    private void resetPointColors() {
-        pointNodes.values().forEach(circle -> circle.setFill(COLOR_POINT));
-        highlightedPoint = null;
-        highlightedPointBaseColor = null;
+    private void renderCacheStats() {
+        if (cacheStatsLabel == null || !statsPanel.isVisible()) {
+            return;
+        }
+        cacheStatsLabel.setText(String.format("Hits: %,d%nMisses: %,d%nEntries: %,d (%.1f of %.0f MB)%nEvictions: %,d",
+                hullCache.hits(), hullCache.misses(), hullCache.size(), hullCache.bytes() / 1e6,
+                hullCache.budgetBytes() / 1e6, hullCache.evictions()));
+    }
+
+    private void renderStats(HullMetrics metrics) {
+        if (statsLabel == null || !statsPanel.isVisible()) {
+            return;
+        }
+        statsLabel.setText(String.format(
+                "Points: %,d (%,d culled)%n"
+                        + "Orientation tests: %,d%n"
+                        + "Pushes: %,d%nPops: %,d%n%n"
+                        + "Cull: %s%nSort: %s%nUpper chain: %s%nLower chain: %s%nMerge: %s%nTotal: %s",
+                metrics.inputCount(), metrics.culledCount(), metrics.orientationTests(), metrics.pushes(), metrics.pops(),
+                formatNanos(metrics.cullNanos()), formatNanos(metrics.sortNanos()), formatNanos(metrics.upperNanos()),
+                formatNanos(metrics.lowerNanos()), formatNanos(metrics.mergeNanos()), formatNanos(metrics.totalNanos())));
+    }
+
+    private static String formatNanos(long nanos) {
+        return nanos >= 1_000_000 ? String.format("%.1f ms", nanos / 1e6) : String.format("%.1f \u00b5s", nanos / 1e3);
     }
 
     // Point management -----------------------------------------------------
 
+    // Edits record themselves in pointHistory, which stays in the same order as points.
+
     private void addPoint(double viewX, double viewY) {
-        addModelPoint(coordinateMapper.toModel(viewX, viewY));
+        addPoints("add point", List.of(coordinateMapper.toModel(viewX, viewY)));
     }
 
-    private void addPoints(List<Point2D> modelPoints) {
+    private void addPoints(String label, List<Point2D> modelPoints) {
+        pointHistory.append(label, modelPoints);
         modelPoints.forEach(this::addModelPoint);
+        updateHistoryControls();
+    }
+
+    private void removeModelPoint(Point2D modelPoint) {
+        int index = points.indexOf(modelPoint);
+        if (index >= 0) {
+            pointHistory.remove("remove point", index);
+            removeModelPointAt(index);
+            updateHistoryControls();
+            invalidateHullAnimation("Point removed. Prepare model again.");
+        }
     }
 
     private void addModelPoint(Point2D modelPoint) {
-        points.add(modelPoint);
-        Circle circle = createPointCircle(modelPoint);
-        pointNodes.put(modelPoint, circle);
+        insertModelPoint(points.size(), modelPoint);
+    }
+
+    private void insertModelPoint(int index, Point2D modelPoint) {
+        points.add(index, modelPoint);
+        pointIndex.add(modelPoint);
+        liveHull.add(modelPoint);
+        if (pointRenderer != null) {
+            pointRenderer.pointAdded(modelPoint);
+        }
+    }
+
+    private void removeModelPointAt(int index) {
+        Point2D modelPoint = points.remove(index);
+        pointIndex.remove(modelPoint);
+        liveHull.remove(modelPoint);
+        if (pointRenderer != null) {
+            pointRenderer.pointRemoved(modelPoint);
+        }
+    }
+
+    private void replaceModelPoints(List<Point2D> modelPoints) {
+        points.setAll(modelPoints);
+        pointIndex.clear();
+        modelPoints.forEach(pointIndex::add);
+        liveHull.clear();
+        liveHull.addAll(modelPoints);
+        if (pointRenderer != null) {
+            pointRenderer.redrawPoints();
+        }
     }
 
     private void populateWithRandomPoints() {
@@ -381,56 +751,301 @@ public class UIController {
         List<Point2D> generated = pointGenerator.generatePoints(RANDOM_POINT_COUNT, width, height, POINT_RADIUS);
         List<Point2D> modelPoints = new ArrayList<>(generated.size());
         generated.forEach(viewPoint -> modelPoints.add(coordinateMapper.toModel(viewPoint)));
-        addPoints(modelPoints);
+        addPoints("add random points", modelPoints);
+    }
+
+    /**
+     * Zooms to the bounding box of the points, or back to the default view when there are none.
+     */
+    private void fitView() {
+        if (points.isEmpty()) {
+            coordinateMapper.resetView();
+            return;
+        }
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (Point2D point : points) {
+            minX = Math.min(minX, point.getX());
+            minY = Math.min(minY, point.getY());
+            maxX = Math.max(maxX, point.getX());
+            maxY = Math.max(maxY, point.getY());
+        }
+        coordinateMapper.fit(minX, minY, maxX, maxY, FIT_MARGIN);
     }
 
     private void clearAllPoints() {
-        points.clear();
-        pointNodes.clear();
-        if (pointCanvas != null) {
-            pointCanvas.getChildren().clear();
-            initializeHullLayers();
+        feedWindow.clear();
+        // While following a feed the history stays at the clear that started it.
+        if (!pointHistory.current().isEmpty()) {
+            pointHistory.replace("clear", List.of());
+            updateHistoryControls();
         }
-        lastRenderedStep = null;
+        replaceModelPoints(List.of());
         invalidateHullAnimation("Canvas cleared.");
     }
 
-    private Circle createPointCircle(Point2D point) {
-        Point2D viewPoint = coordinateMapper.toView(point);
-        Circle circle = new Circle(viewPoint.getX(), viewPoint.getY(), POINT_RADIUS, COLOR_POINT);
-        circle.setStroke(Color.WHITE);
-        circle.setStrokeWidth(1.5);
-        attachTooltip(circle, point);
-        enableRemoval(circle, point);
-        pointCanvas.getChildren().add(circle);
-        return circle;
-    }
-
-    private void attachTooltip(Circle circle, Point2D point) {
-        Tooltip tooltip = new Tooltip(formatPoint(point));
-        tooltip.setShowDelay(Duration.ZERO);
-        tooltip.setHideDelay(Duration.millis(100));
-        Tooltip.install(circle, tooltip);
-    }
-
-    private void enableRemoval(Circle circle, Point2D point) {
-        circle.setOnMouseClicked(event -> {
-            if (event.getButton() == MouseButton.SECONDARY) {
-                points.remove(point);
-                pointNodes.remove(point);
-                pointCanvas.getChildren().remove(circle);
-                invalidateHullAnimation("Point removed. Prepare model again.");
-                event.consume();
+    // Undo and redo --------------------------------------------------------
+
+    /**
+     * Reverts the last edit through the same incremental updates a user edit makes; only clearing,
+     * loading and the live feed replace every point.
+     */
+    private void undoEdit() {
+        if (pointFeed != null || !pointHistory.canUndo()) {
+            return;
+        }
+        PointSetHistory.Edit edit = pointHistory.undo();
+        switch (edit.kind()) {
+            case APPEND -> {
+                for (int i = edit.after().size() - 1; i >= edit.index(); i--) {
+                    removeModelPointAt(i);
+                }
+            }
+            case REMOVE -> insertModelPoint(edit.index(), edit.before().get(edit.index()));
+            case REPLACE -> replaceModelPoints(edit.before().toList());
+        }
+        updateHistoryControls();
+        invalidateHullAnimation("Undone: " + edit.label() + ". Prepare model again.");
+    }
+
+    private void redoEdit() {
+        if (pointFeed != null || !pointHistory.canRedo()) {
+            return;
+        }
+        PointSetHistory.Edit edit = pointHistory.redo();
+        switch (edit.kind()) {
+            case APPEND -> {
+                for (int i = edit.index(); i < edit.after().size(); i++) {
+                    addModelPoint(edit.after().get(i));
+                }
             }
+            case REMOVE -> removeModelPointAt(edit.index());
+            case REPLACE -> replaceModelPoints(edit.after().toList());
+        }
+        updateHistoryControls();
+        invalidateHullAnimation("Redone: " + edit.label() + ". Prepare model again.");
+    }
+
+    private void updateHistoryControls() {
+        if (undoButton != null) {
+            undoButton.setDisable(pointFeed != null || !pointHistory.canUndo());
+        }
+        if (redoButton != null) {
+            redoButton.setDisable(pointFeed != null || !pointHistory.canRedo());
+        }
+    }
+
+    // Live feed ------------------------------------------------------------
+
+    /**
+     * Asks for a port or file and follows it: the canvas shows the last {@value #FEED_WINDOW_POINTS}
+     * points of the last 30 seconds, and their hull comes from {@link SlidingWindowHull}, so each
+     * arriving point costs time in the size of the hull rather than of the window.
+     */
+    private void startFeed() {
+        TextInputDialog dialog = new TextInputDialog(DEFAULT_FEED_SOURCE);
+        dialog.initOwner(stage);
+        dialog.setTitle("Live Feed");
+        dialog.setHeaderText("Follow x,y lines sent to a local port or appended to a file.");
+        dialog.setContentText("Port or file:");
+        Optional<String> source = dialog.showAndWait().map(String::strip).filter(text -> !text.isEmpty());
+        if (source.isEmpty()) {
+            feedToggle.setSelected(false);
+            return;
+        }
+        try {
+            pointFeed = openFeed(source.get());
+        } catch (IOException | IllegalArgumentException ex) {
+            feedToggle.setSelected(false);
+            updateStatus("Live feed failed: " + ex.getMessage());
+            return;
+        }
+        clearAllPoints();
+        setFeedControlsDisabled(true);
+        feedPump.start();
+        updateStatus("Following " + pointFeed.description() + ".");
+    }
+
+    private PointFeed openFeed(String source) throws IOException {
+        // Points arrive on the feed thread, stamped with their arrival time there so their age does
+        // not depend on the frame that picks them up.
+        Consumer<Point2D> sink = point -> feedQueue.add(new FeedPoint(point, System.nanoTime()));
+        if (source.chars().allMatch(Character::isDigit)) {
+            return PointFeed.listen(Integer.parseInt(source), sink, this::feedFailed);
+        }
+        return PointFeed.tail(Path.of(source), sink, this::feedFailed);
+    }
+
+    private record FeedPoint(Point2D point, long arrivalNanos) {}
+
+    private void feedFailed(IOException ex) {
+        Platform.runLater(() -> stopFeed("Live feed stopped: " + ex.getMessage()));
+    }
+
+    private void stopFeed(String reason) {
+        if (pointFeed == null) {
+            return;
+        }
+        feedPump.stop();
+        try {
+            pointFeed.close();
+        } catch (IOException ex) {
+            reason += " (" + ex.getMessage() + ")";
+        }
+        pointFeed = null;
+        feedQueue.clear();
+        feedToggle.setSelected(false);
+        setFeedControlsDisabled(false);
+        // Hand the window over to the editable live hull and the history.
+        liveHull.clear();
+        liveHull.addAll(points);
+        if (!points.isEmpty()) {
+            pointHistory.replace("live feed", points);
+        }
+        updateHistoryControls();
+        renderLiveHull();
+        updateStatus(reason);
+    }
+
+    /**
+     * Moves queued points into the window once per frame. {@code points} and {@code pointIndex}
+     * follow the window by dropping the points it dropped and appending the new ones, so a frame
+     * costs time in the points that changed rather than in the window. Points are redrawn when
+     * some expired, the hull only when its vertices changed.
+     */
+    private void drainFeed(long now) {
+        int before = feedWindow.size();
+        long droppedBefore = feedWindow.droppedCount();
+        boolean hullChanged = false;
+        FeedPoint arrival;
+        while ((arrival = feedQueue.poll()) != null) {
+            hullChanged |= feedWindow.add(arrival.point(), arrival.arrivalNanos());
+            feedBatch.add(arrival.point());
+        }
+        hullChanged |= feedWindow.expire(now);
+        int drained = feedBatch.size();
+        int expired = (int) (feedWindow.droppedCount() - droppedBefore);
+        if (expired > 0 && expired >= before) {
+            // Every point shown before is gone, along with the oldest of this batch.
+            points.setAll(feedBatch.subList(drained - feedWindow.size(), drained));
+            pointIndex.clear();
+            points.forEach(pointIndex::add);
+            if (pointRenderer != null) {
+                pointRenderer.redrawPoints();
+            }
+        } else if (drained > 0 || expired > 0) {
+            List<Point2D> expiredPoints = points.subList(0, expired);
+            expiredPoints.forEach(pointIndex::remove);
+            expiredPoints.clear();
+            points.addAll(feedBatch);
+            feedBatch.forEach(pointIndex::add);
+            if (pointRenderer != null) {
+                if (expired > 0) {
+                    pointRenderer.redrawPoints();
+                } else {
+                    feedBatch.forEach(pointRenderer::pointAdded);
+                }
+            }
+        }
+        feedBatch.clear();
+        if (hullChanged) {
+            renderLiveHull();
+        }
+        if (drained > 0) {
+            updateStatus(String.format("Following %s: %,d points received, %,d in window, %d hull vertices.",
+                    pointFeed.description(), pointFeed.receivedCount(), feedWindow.size(), feedWindow.hull().size()));
+        }
+    }
+
+    private void setFeedControlsDisabled(boolean disabled) {
+        randomPointsButton.setDisable(disabled);
+        computeButton.setDisable(disabled);
+        loadButton.setDisable(disabled);
+        updateHistoryControls();
+    }
+
+    // Persistence ----------------------------------------------------------
+
+    private void savePointSet() {
+        if (points.isEmpty()) {
+            updateStatus("Nothing to save.");
+            return;
+        }
+        File file = pointSetChooser("Save Point Set").showSaveDialog(stage);
+        if (file == null) {
+            return;
+        }
+        // A prepared hull is saved with the step log it plays, streamed to disk on a virtual thread.
+        List<Point2D> snapshot = List.copyOf(points);
+        Iterator<HullStep> steps = hullPrepared ? animationController.replaySteps() : null;
+        Task<Void> task = new Task<>() {
+            @Override
+            protected Void call() throws IOException {
+                PointSetFile.write(file.toPath(), snapshot, steps);
+                return null;
+            }
+        };
+        task.setOnSucceeded(event -> {
+            saveButton.setDisable(false);
+            updateStatus("Saved " + snapshot.size() + (steps != null ? " points with step log to " : " points to ") + file.getName() + ".");
+        });
+        task.setOnFailed(event -> {
+            saveButton.setDisable(false);
+            updateStatus("Save failed: " + task.getException().getMessage());
         });
+        saveButton.setDisable(true);
+        updateStatus("Saving " + snapshot.size() + " points to " + file.getName() + "...");
+        Thread.ofVirtual().name("point-set-save").start(task);
+    }
+
+    private void loadPointSet() {
+        File file = pointSetChooser("Load Point Set").showOpenDialog(stage);
+        if (file == null) {
+            return;
+        }
+        PointSetFile pointSet;
+        try {
+            pointSet = PointSetFile.read(file.toPath());
+        } catch (IOException ex) {
+            updateStatus("Load failed: " + ex.getMessage());
+            return;
+        }
+        List<Point2D> loaded = pointSet.points();
+        pointHistory.replace("load " + file.getName(), loaded);
+        replaceModelPoints(loaded);
+        updateHistoryControls();
+        fitView();
+        invalidateHullAnimation("Loaded " + loaded.size() + " points from " + file.getName() + ".");
+        if (pointSet.hasStepLog()) {
+            hullPrepared = true;
+            clearLiveHull();
+            animationController.loadSteps(pointSet.stepLog());
+            enableTransportControls();
+            stepButton.setDisable(false);
+            updateStatus("Loaded " + loaded.size() + " points with step log from " + file.getName() + ". Press Play or Step.");
+        }
+    }
+
+    private FileChooser pointSetChooser(String title) {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle(title);
+        chooser.getExtensionFilters().add(
+                new FileChooser.ExtensionFilter("Point sets (*." + PointSetFile.EXTENSION + ")", "*." + PointSetFile.EXTENSION));
+        return chooser;
     }
 
     // Utility helpers ------------------------------------------------------
 
     private void invalidateHullAnimation(String reason) {
+        cancelHullPreparation();
+        cancelSeek();
         if (animationController != null) {
             animationController.reset();
         }
+        hullPrepared = false;
+        renderLiveHull();
         disableTransportControls();
         playPauseButton.setText("Play");
         updateStatus(reason);
@@ -440,6 +1055,14 @@ public class UIController {
         playPauseButton.setDisable(false);
         stepButton.setDisable(false);
         resetButton.setDisable(false);
+        if (scrubber != null) {
+            updatingScrubber = true;
+            scrubber.setMin(0);
+            scrubber.setMax(Math.max(animationController.stepCount() - 1, 0));
+            scrubber.setValue(0);
+            updatingScrubber = false;
+            scrubber.setDisable(!animationController.hasSteps());
+        }
     }
 
     private void disableTransportControls() {
@@ -447,6 +1070,9 @@ public class UIController {
         stepButton.setDisable(true);
         resetButton.setDisable(true);
         playPauseButton.setText("Play");
+        if (scrubber != null) {
+            scrubber.setDisable(true);
+        }
     }
 
     private double resolveCanvasDimension(double paneExtent, double fallbackExtent) {
@@ -459,52 +1085,21 @@ public class UIController {
         }
     }
 
+    private String describeStep(HullStep step) {
+        return step.point() == null ? step.description() : step.description() + ": " + formatPoint(step.point());
+    }
+
     private String formatPoint(Point2D modelPoint) {
         return String.format("(%.1f, %.1f)", modelPoint.getX(), modelPoint.getY());
     }
 
-    private void refreshViewProjection() {
-        if (pointCanvas == null || coordinateMapper.getWidth() <= 0 || coordinateMapper.getHeight() <= 0) {
+    private void removePointAt(double x, double y) {
+        if (pointRenderer == null) {
             return;
         }
-        points.forEach(point -> {
-            Circle circle = pointNodes.get(point);
-            if (circle != null) {
-                Point2D viewPoint = coordinateMapper.toView(point);
-                circle.setCenterX(viewPoint.getX());
-                circle.setCenterY(viewPoint.getY());
-            }
-        });
-        if (lastRenderedStep != null) {
-            renderHull(lastRenderedStep);
-        }
-    }
-
-    private void removePointAt(double x, double y) {
-        Point2D modelPoint = coordinateMapper.toModel(x, y);
-        points.remove(modelPoint);
-        Circle circle = pointNodes.remove(modelPoint);
-        if (circle != null) {
-            pointCanvas.getChildren().remove(circle);
-            invalidateHullAnimation("Point removed. Prepare model again.");
-        } else {
-            // If no exact point is found, attempt to find and remove the nearest point within a certain radius
-            double radius = POINT_RADIUS * 2; // Search within twice the point radius
-            List<Point2D> nearbyPoints = new ArrayList<>();
-            for (Point2D point : points) {
-                if (point.distance(modelPoint) <= radius) {
-                    nearbyPoints.add(point);
-                }
-            }
-            if (!nearbyPoints.isEmpty()) {
-                Point2D nearestPoint = nearbyPoints.get(0);
-                points.remove(nearestPoint);
-                Circle nearestCircle = pointNodes.remove(nearestPoint);
-                if (nearestCircle != null) {
-                    pointCanvas.getChildren().remove(nearestCircle);
-                    invalidateHullAnimation("Point removed. Prepare model again.");
-                }
-            }
+        Point2D nearestPoint = pointRenderer.hitTest(x, y, POINT_RADIUS * 2);
+        if (nearestPoint != null) {
+            removeModelPoint(nearestPoint);
         }
     }
 }
@@ -2,6 +2,7 @@ module ConvexHull {
     requires javafx.controls;
     requires javafx.fxml;
     requires javafx.graphics;
+    requires jdk.jfr;
 
     opens av.code.wicked;
     opens av.code.wicked.view;